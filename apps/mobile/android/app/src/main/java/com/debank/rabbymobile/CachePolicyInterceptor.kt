@@ -0,0 +1,213 @@
+package com.debank.rabbymobile
+
+import android.util.Log
+import okhttp3.Call
+import okhttp3.CacheControl
+import okhttp3.Callback
+import okhttp3.HttpUrl
+import okhttp3.Interceptor
+import okhttp3.Request
+import okhttp3.Response
+import okio.Buffer
+import java.io.IOException
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
+
+/**
+ * Cache policy for one endpoint.
+ *
+ * @param maxAgeSeconds overrides the `Cache-Control` sent by the server, 0 keeps the server's one
+ * @param staleWhileRevalidateSeconds how long a stale cached response may still be served
+ *        while it's refreshed in background, 0 disables it
+ */
+data class HttpCachePolicy(
+    val maxAgeSeconds: Int,
+    val staleWhileRevalidateSeconds: Int = 0
+)
+
+object HttpCachePolicies {
+    private const val MINUTE = 60
+    private const val HOUR = 60 * MINUTE
+    private const val DAY = 24 * HOUR
+
+    // static asset hosts, the policy applies to immutable assets only (see isImmutableAsset),
+    // other files there (e.g. supported_chains.json) keep the server's Cache-Control
+    private val byHost = mapOf(
+        "static.debank.com" to HttpCachePolicy(maxAgeSeconds = 7 * DAY),
+        "static-assets.rabby.io" to HttpCachePolicy(maxAgeSeconds = 7 * DAY),
+        "static-assets.debank.com" to HttpCachePolicy(maxAgeSeconds = 7 * DAY),
+    )
+
+    private val imageExtensions = setOf("png", "jpg", "jpeg", "webp", "gif", "svg", "ico")
+    // content hash in the file name, e.g. logo.3f2a9c1b.png or chain-5d41402abc4b2a76.json
+    private val hashedFileName = Regex("[.\\-_][0-9a-fA-F]{8,}\\.[A-Za-z0-9]+$")
+
+    // hosts of the rabby api, the only ones byPathPrefix applies to
+    private val apiHosts = setOf(
+        "app-api.rabby.io",
+        "api.rabby.io",
+        "app-api.testnet.rabby.io",
+        "api.testnet.rabby.io",
+    )
+
+    // static metadata of the rabby api, rarely changed
+    private val byPathPrefix = listOf(
+        "/v1/chain/list" to HttpCachePolicy(maxAgeSeconds = 10 * MINUTE, staleWhileRevalidateSeconds = DAY),
+        "/v1/chainrpc" to HttpCachePolicy(maxAgeSeconds = 10 * MINUTE, staleWhileRevalidateSeconds = DAY),
+        "/v1/wallet/supported_chains" to HttpCachePolicy(maxAgeSeconds = 10 * MINUTE, staleWhileRevalidateSeconds = DAY),
+        "/v1/token/list" to HttpCachePolicy(maxAgeSeconds = 5 * MINUTE, staleWhileRevalidateSeconds = HOUR),
+    )
+
+    fun match(url: HttpUrl): HttpCachePolicy? {
+        byHost[url.host]?.let { policy ->
+            return if (isImmutableAsset(url)) policy else null
+        }
+        if (url.host !in apiHosts) return null
+
+        val path = url.encodedPath
+        for ((prefix, policy) in byPathPrefix) {
+            if (path.startsWith(prefix)) return policy
+        }
+        return null
+    }
+
+    /**
+     * Images and files with a content hash in their name, which change url when their content does.
+     */
+    private fun isImmutableAsset(url: HttpUrl): Boolean {
+        val fileName = url.pathSegments.lastOrNull() ?: return false
+        val extension = fileName.substringAfterLast('.', "").lowercase()
+        return extension in imageExtensions || hashedFileName.containsMatchIn(fileName)
+    }
+
+    fun match(request: Request): HttpCachePolicy? {
+        if (request.method != "GET") return null
+        return match(request.url)
+    }
+}
+
+/**
+ * Reads the whole body of [response] and discards it, the http cache entry of a response is
+ * committed only once its body is fully consumed. Doesn't close [response].
+ */
+@Throws(IOException::class)
+internal fun drainBody(response: Response) {
+    val source = response.body?.source() ?: return
+    val sink = Buffer()
+    while (source.read(sink, 8192) != -1L) {
+        sink.clear()
+    }
+}
+
+/**
+ * Application interceptor serving stale cached responses of endpoints with
+ * `staleWhileRevalidateSeconds`, and refreshing them in background.
+ *
+ * @param callFactory client for background refresh, sharing the http cache of the one this
+ *        interceptor is installed on
+ */
+class CachePolicyInterceptor(private val callFactory: () -> Call.Factory) : Interceptor {
+    companion object {
+        private const val TAG = "CachePolicyInterceptor"
+        // marks background refresh requests, stripped before send
+        private const val HEADER_REVALIDATE = "X-Rabby-Revalidate"
+
+        // the http cache is shared by all clients, so are the pending refreshes
+        private val revalidating = ConcurrentHashMap.newKeySet<String>()
+    }
+
+    @Throws(IOException::class)
+    override fun intercept(chain: Interceptor.Chain): Response {
+        val request = chain.request()
+
+        if (request.header(HEADER_REVALIDATE) != null) {
+            return chain.proceed(request.newBuilder().removeHeader(HEADER_REVALIDATE).build())
+        }
+
+        val policy = HttpCachePolicies.match(request)
+        if (policy == null || policy.staleWhileRevalidateSeconds <= 0 || request.cacheControl.noCache) {
+            return chain.proceed(request)
+        }
+
+        val cacheOnlyRequest = request.newBuilder()
+            .cacheControl(
+                CacheControl.Builder()
+                    .onlyIfCached()
+                    .maxStale(policy.staleWhileRevalidateSeconds, TimeUnit.SECONDS)
+                    .build()
+            )
+            .build()
+        val cached = chain.proceed(cacheOnlyRequest)
+        // 504 means nothing usable in cache
+        if (cached.code == 504) {
+            cached.close()
+            return chain.proceed(request)
+        }
+
+        if (isStale(cached)) {
+            revalidate(request)
+        }
+
+        return cached.newBuilder().request(request).build()
+    }
+
+    private fun isStale(response: Response): Boolean {
+        // okhttp marks stale cached responses with `Warning: 110`
+        return response.headers("Warning").any { it.startsWith("110") }
+    }
+
+    private fun revalidate(request: Request) {
+        val key = request.url.toString()
+        if (!revalidating.add(key)) return
+
+        val refreshRequest = request.newBuilder()
+            .header(HEADER_REVALIDATE, "1")
+            .header(PriorityLaneInterceptor.HEADER_PRIORITY, "background")
+            .build()
+
+        callFactory().newCall(refreshRequest).enqueue(object : Callback {
+            override fun onFailure(call: Call, e: IOException) {
+                revalidating.remove(key)
+            }
+
+            override fun onResponse(call: Call, response: Response) {
+                try {
+                    drainBody(response)
+                } catch (e: IOException) {
+                    Log.w(TAG, "Failed to refresh $key", e)
+                } finally {
+                    response.close()
+                    revalidating.remove(key)
+                }
+            }
+        })
+    }
+}
+
+/**
+ * Network interceptor applying `maxAgeSeconds` overrides, so that responses of configured
+ * endpoints are stored in and served from the http cache. Responses the server marks as
+ * `no-store` or `private` are left as is, so they're never cached.
+ */
+class CachePolicyNetworkInterceptor : Interceptor {
+    @Throws(IOException::class)
+    override fun intercept(chain: Interceptor.Chain): Response {
+        val request = chain.request()
+        val response = chain.proceed(request)
+
+        val policy = HttpCachePolicies.match(request)
+        // 304 headers are merged into the cached entry, keep them consistent with it
+        if (policy == null || policy.maxAgeSeconds <= 0 || (response.code != 200 && response.code != 304)) {
+            return response
+        }
+        val cacheControl = response.cacheControl
+        if (cacheControl.noStore || cacheControl.isPrivate) {
+            return response
+        }
+
+        return response.newBuilder()
+            .removeHeader("Pragma")
+            .header("Cache-Control", "public, max-age=${policy.maxAgeSeconds}")
+            .build()
+    }
+}
@@ -0,0 +1,36 @@
+package com.debank.rabbymobile
+
+import android.os.SystemClock
+import okhttp3.Dns
+import java.net.InetAddress
+import java.net.UnknownHostException
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Keeps successful lookups for `ttlMillis`, so new connections to the same hosts skip the
+ * resolver. Failed lookups are never cached.
+ */
+class CachingDns(
+    private val ttlMillis: Long,
+    private val delegate: Dns = Dns.SYSTEM
+) : Dns {
+    private class Entry(val addresses: List<InetAddress>, val expiresAt: Long)
+
+    private val entries = ConcurrentHashMap<String, Entry>()
+
+    @Throws(UnknownHostException::class)
+    override fun lookup(hostname: String): List<InetAddress> {
+        val now = SystemClock.elapsedRealtime()
+        entries[hostname]?.let {
+            if (it.expiresAt > now) return it.addresses
+        }
+
+        val addresses = delegate.lookup(hostname)
+        entries[hostname] = Entry(addresses, now + ttlMillis)
+        return addresses
+    }
+
+    fun clear() {
+        entries.clear()
+    }
+}
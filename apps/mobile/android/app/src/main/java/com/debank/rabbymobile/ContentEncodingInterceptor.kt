@@ -0,0 +1,113 @@
+package com.debank.rabbymobile
+
+import okhttp3.Interceptor
+import okhttp3.Response
+import okhttp3.ResponseBody.Companion.asResponseBody
+import okhttp3.internal.http.promisesBody
+import okio.Buffer
+import okio.BufferedSource
+import okio.GzipSource
+import okio.Source
+import okio.Timeout
+import okio.buffer
+import okio.source
+import org.brotli.dec.BrotliInputStream
+import java.io.IOException
+import java.io.InputStream
+import java.lang.reflect.Constructor
+
+/**
+ * Advertises and transparently decodes Brotli (and zstd when a decoder is on the classpath)
+ * besides gzip. Bodies are decoded while they're read, never buffered as a whole.
+ *
+ * It replaces okhttp's transparent gzip, which is disabled once `Accept-Encoding` is set.
+ * Requests setting their own `Accept-Encoding` or a `Range` are left untouched.
+ */
+class ContentEncodingInterceptor : Interceptor {
+    companion object {
+        // zstd-jni isn't bundled, look it up so it's used as soon as it gets linked
+        private val zstdInputStream: Constructor<*>? by lazy {
+            try {
+                Class.forName("com.github.luben.zstd.ZstdInputStream").getConstructor(InputStream::class.java)
+            } catch (e: Throwable) {
+                null
+            }
+        }
+
+        val acceptEncoding: String by lazy {
+            if (zstdInputStream != null) "zstd, br, gzip" else "br, gzip"
+        }
+    }
+
+    @Throws(IOException::class)
+    override fun intercept(chain: Interceptor.Chain): Response {
+        val request = chain.request()
+        if (request.header("Accept-Encoding") != null || request.header("Range") != null) {
+            return chain.proceed(request)
+        }
+
+        val response = chain.proceed(
+            request.newBuilder()
+                .header("Accept-Encoding", acceptEncoding)
+                .build()
+        )
+
+        return decode(response)
+    }
+
+    private fun decode(response: Response): Response {
+        val body = response.body ?: return response
+        val encoding = response.header("Content-Encoding") ?: return response
+        // HEAD, 204, 304 and empty error responses have nothing to decode
+        if (!response.promisesBody() || body.contentLength() == 0L) {
+            return response
+        }
+
+        val newDecoder: (BufferedSource) -> Source = when (encoding.trim().lowercase()) {
+            "br" -> { source -> BrotliInputStream(source.inputStream()).source() }
+            "gzip" -> { source -> GzipSource(source) }
+            "zstd" -> {
+                val constructor = zstdInputStream ?: return response
+                val zstd: (BufferedSource) -> Source = { source ->
+                    (constructor.newInstance(source.inputStream()) as InputStream).source()
+                }
+                zstd
+            }
+            else -> return response
+        }
+        val decoded = LazyDecodingSource(body.source(), newDecoder)
+
+        return response.newBuilder()
+            .removeHeader("Content-Encoding")
+            .removeHeader("Content-Length")
+            .body(decoded.buffer().asResponseBody(body.contentType(), -1L))
+            .build()
+    }
+}
+
+/**
+ * Creates its decoder on first read, as decoders read their header right away (Brotli in its
+ * constructor) and fail on bodies that turn out to be empty, e.g. chunked with no data.
+ */
+private class LazyDecodingSource(
+    private val upstream: BufferedSource,
+    private val newDecoder: (BufferedSource) -> Source
+) : Source {
+    private var decoder: Source? = null
+
+    @Throws(IOException::class)
+    override fun read(sink: Buffer, byteCount: Long): Long {
+        val source = decoder ?: run {
+            if (upstream.exhausted()) return -1L
+            newDecoder(upstream).also { decoder = it }
+        }
+        return source.read(sink, byteCount)
+    }
+
+    override fun timeout(): Timeout = upstream.timeout()
+
+    @Throws(IOException::class)
+    override fun close() {
+        (decoder ?: upstream).close()
+    }
+}
@@ -0,0 +1,11 @@
+package com.debank.rabbymobile;
+
+/**
+ * A native module emitting events, which knows whether JS listens to them.
+ */
+public interface ListenerAwareEmitter {
+  /**
+   * @return false only if no JS listener is subscribed to the event, so sending it can be skipped.
+   */
+  boolean hasListeners(String eventName);
+}
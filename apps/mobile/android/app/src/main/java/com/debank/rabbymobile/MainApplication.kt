@@ -27,6 +27,7 @@ class MainApplication : Application(), ReactApplication {
               add(RNTimeChangedPackage());
               add(RNHelpersPackage());
               add(RNThreadPackage());
+              add(RNNetworkMetricsPackage());
             }
 
         override fun getJSMainModuleName(): String = "index"
@@ -42,8 +43,12 @@ class MainApplication : Application(), ReactApplication {
 
   override fun onCreate() {
     super.onCreate()
+    TrustedClock.init()
     SoLoader.init(this, OpenSourceMergedSoMapping)
-    OkHttpClientProvider.setOkHttpClientFactory(UserAgentClientFactory())
+    val clientFactory = UserAgentClientFactory(this)
+    OkHttpClientProvider.setOkHttpClientFactory(clientFactory)
+    clientFactory.prewarmConnections()
+    clientFactory.prefetchHotEndpoints()
     if (BuildConfig.IS_NEW_ARCHITECTURE_ENABLED) {
       // If you opted-in for the New Architecture, we load the native entry point for this app.
       load()
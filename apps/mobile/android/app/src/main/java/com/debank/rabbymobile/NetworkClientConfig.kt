@@ -0,0 +1,25 @@
+package com.debank.rabbymobile
+
+/**
+ * Tunables of the network module client, see [UserAgentClientFactory].
+ */
+data class NetworkClientConfig(
+    val maxIdleConnections: Int,
+    val keepAliveMinutes: Long,
+    val dnsCacheTtlSeconds: Long,
+    /** hosts to open connections to as soon as the app starts */
+    val prewarmHosts: List<String>
+) {
+    companion object {
+        @JvmField
+        val DEFAULT = NetworkClientConfig(
+            maxIdleConnections = 16,
+            keepAliveMinutes = 5,
+            dnsCacheTtlSeconds = 120,
+            prewarmHosts = listOf(
+                "app-api.rabby.io",
+                "api.rabby.io",
+            )
+        )
+    }
+}
@@ -0,0 +1,162 @@
+package com.debank.rabbymobile
+
+import okhttp3.HttpUrl
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicLongArray
+
+/**
+ * Lock-free latency histogram with fixed millisecond buckets.
+ */
+class LatencyHistogram {
+    companion object {
+        // upper bounds (inclusive) of buckets, the last bucket takes everything above
+        @JvmField
+        val BUCKET_BOUNDS_MS = longArrayOf(5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000)
+    }
+
+    data class Snapshot(
+        val count: Long,
+        val sumMs: Long,
+        val maxMs: Long,
+        val p50Ms: Long,
+        val p90Ms: Long,
+        val p99Ms: Long,
+        val buckets: LongArray
+    )
+
+    private val buckets = AtomicLongArray(BUCKET_BOUNDS_MS.size + 1)
+    private val count = AtomicLong()
+    private val sumMs = AtomicLong()
+    private val maxMs = AtomicLong()
+
+    fun record(ms: Long) {
+        if (ms < 0) return
+
+        var index = 0
+        while (index < BUCKET_BOUNDS_MS.size && ms > BUCKET_BOUNDS_MS[index]) index++
+        buckets.incrementAndGet(index)
+        count.incrementAndGet()
+        sumMs.addAndGet(ms)
+
+        var max = maxMs.get()
+        while (ms > max && !maxMs.compareAndSet(max, ms)) {
+            max = maxMs.get()
+        }
+    }
+
+    fun snapshot(): Snapshot {
+        val values = LongArray(buckets.length()) { buckets.get(it) }
+        val total = values.sum()
+        val max = maxMs.get()
+
+        return Snapshot(
+            count = count.get(),
+            sumMs = sumMs.get(),
+            maxMs = max,
+            p50Ms = percentile(values, total, 0.50, max),
+            p90Ms = percentile(values, total, 0.90, max),
+            p99Ms = percentile(values, total, 0.99, max),
+            buckets = values
+        )
+    }
+
+    // upper bound of the bucket holding the percentile, capped by the observed max
+    private fun percentile(values: LongArray, total: Long, p: Double, max: Long): Long {
+        if (total == 0L) return 0
+
+        val rank = Math.ceil(total * p).toLong()
+        var seen = 0L
+        for (i in values.indices) {
+            seen += values[i]
+            if (seen >= rank) {
+                return if (i < BUCKET_BOUNDS_MS.size) minOf(BUCKET_BOUNDS_MS[i], max) else max
+            }
+        }
+        return max
+    }
+}
+
+class EndpointMetrics(val key: String) {
+    data class Snapshot(
+        val key: String,
+        val failures: Long,
+        val bytesSent: Long,
+        val bytesReceived: Long,
+        val dns: LatencyHistogram.Snapshot,
+        val connect: LatencyHistogram.Snapshot,
+        val tls: LatencyHistogram.Snapshot,
+        val ttfb: LatencyHistogram.Snapshot,
+        val body: LatencyHistogram.Snapshot,
+        val total: LatencyHistogram.Snapshot
+    )
+
+    val dns = LatencyHistogram()
+    val connect = LatencyHistogram()
+    val tls = LatencyHistogram()
+    val ttfb = LatencyHistogram()
+    val body = LatencyHistogram()
+    val total = LatencyHistogram()
+
+    val failures = AtomicLong()
+    val bytesSent = AtomicLong()
+    val bytesReceived = AtomicLong()
+
+    fun snapshot() = Snapshot(
+        key = key,
+        failures = failures.get(),
+        bytesSent = bytesSent.get(),
+        bytesReceived = bytesReceived.get(),
+        dns = dns.snapshot(),
+        connect = connect.snapshot(),
+        tls = tls.snapshot(),
+        ttfb = ttfb.snapshot(),
+        body = body.snapshot(),
+        total = total.snapshot()
+    )
+}
+
+/**
+ * Per host + path template request metrics, fed by [NetworkMetricsEventListener].
+ */
+object NetworkMetrics {
+    private const val MAX_ENDPOINTS = 256
+    private const val OTHER_ENDPOINTS = "(other)"
+
+    private val ID_SEGMENT = Regex("^(\\d+|0x[0-9a-fA-F]+|[0-9a-fA-F-]{16,}|.{40,})$")
+
+    private val endpoints = ConcurrentHashMap<String, EndpointMetrics>()
+
+    /**
+     * `app-api.rabby.io/v1/user/0x1234.../tokens` -> `app-api.rabby.io/v1/user/:id/tokens`
+     */
+    @JvmStatic
+    fun endpointKey(url: HttpUrl): String {
+        val builder = StringBuilder(url.host)
+        for (segment in url.pathSegments) {
+            if (segment.isEmpty()) continue
+            builder.append('/').append(if (ID_SEGMENT.matches(segment)) ":id" else segment)
+        }
+        return builder.toString()
+    }
+
+    @JvmStatic
+    fun forUrl(url: HttpUrl): EndpointMetrics {
+        val key = endpointKey(url)
+        endpoints[key]?.let { return it }
+
+        // bound the cardinality, templates are best effort
+        val finalKey = if (endpoints.size >= MAX_ENDPOINTS) OTHER_ENDPOINTS else key
+        return endpoints.getOrPut(finalKey) { EndpointMetrics(finalKey) }
+    }
+
+    @JvmStatic
+    fun snapshot(): List<EndpointMetrics.Snapshot> {
+        return endpoints.values.map { it.snapshot() }
+    }
+
+    @JvmStatic
+    fun reset() {
+        endpoints.clear()
+    }
+}
@@ -0,0 +1,118 @@
+package com.debank.rabbymobile
+
+import okhttp3.Call
+import okhttp3.EventListener
+import okhttp3.Handshake
+import okhttp3.Protocol
+import okhttp3.Request
+import java.io.IOException
+import java.net.InetAddress
+import java.net.InetSocketAddress
+import java.net.Proxy
+
+/**
+ * Times the phases of one call and records them into [NetworkMetrics] when the call ends.
+ *
+ * Events of a call are delivered sequentially, so no synchronization is needed here.
+ */
+class NetworkMetricsEventListener : EventListener() {
+    object Factory : EventListener.Factory {
+        override fun create(call: Call): EventListener = NetworkMetricsEventListener()
+    }
+
+    private var callStartNs = 0L
+    private var dnsStartNs = 0L
+    private var connectStartNs = 0L
+    private var secureConnectStartNs = 0L
+    private var requestEndNs = 0L
+    private var responseBodyStartNs = 0L
+
+    private var dnsMs = -1L
+    private var connectMs = -1L
+    private var tlsMs = -1L
+    private var ttfbMs = -1L
+    private var bodyMs = -1L
+    private var bytesSent = 0L
+    private var bytesReceived = 0L
+
+    private fun elapsedMs(startNs: Long): Long = (System.nanoTime() - startNs) / 1_000_000
+
+    override fun callStart(call: Call) {
+        callStartNs = System.nanoTime()
+    }
+
+    override fun dnsStart(call: Call, domainName: String) {
+        dnsStartNs = System.nanoTime()
+    }
+
+    override fun dnsEnd(call: Call, domainName: String, inetAddressList: List<InetAddress>) {
+        dnsMs = elapsedMs(dnsStartNs)
+    }
+
+    override fun connectStart(call: Call, inetSocketAddress: InetSocketAddress, proxy: Proxy) {
+        connectStartNs = System.nanoTime()
+    }
+
+    override fun secureConnectStart(call: Call) {
+        secureConnectStartNs = System.nanoTime()
+        // tcp only, tls is measured separately
+        connectMs = (secureConnectStartNs - connectStartNs) / 1_000_000
+    }
+
+    override fun secureConnectEnd(call: Call, handshake: Handshake?) {
+        tlsMs = elapsedMs(secureConnectStartNs)
+    }
+
+    override fun connectEnd(call: Call, inetSocketAddress: InetSocketAddress, proxy: Proxy, protocol: Protocol?) {
+        if (secureConnectStartNs == 0L) {
+            connectMs = elapsedMs(connectStartNs)
+        }
+    }
+
+    override fun requestHeadersEnd(call: Call, request: Request) {
+        requestEndNs = System.nanoTime()
+    }
+
+    override fun requestBodyEnd(call: Call, byteCount: Long) {
+        requestEndNs = System.nanoTime()
+        bytesSent += byteCount
+    }
+
+    override fun responseHeadersStart(call: Call) {
+        if (requestEndNs != 0L) {
+            ttfbMs = elapsedMs(requestEndNs)
+        }
+    }
+
+    override fun responseBodyStart(call: Call) {
+        responseBodyStartNs = System.nanoTime()
+    }
+
+    override fun responseBodyEnd(call: Call, byteCount: Long) {
+        bodyMs = elapsedMs(responseBodyStartNs)
+        bytesReceived += byteCount
+    }
+
+    override fun callEnd(call: Call) {
+        record(call, false)
+    }
+
+    override fun callFailed(call: Call, ioe: IOException) {
+        record(call, true)
+    }
+
+    private fun record(call: Call, failed: Boolean) {
+        val metrics = NetworkMetrics.forUrl(call.request().url)
+
+        if (dnsMs >= 0) metrics.dns.record(dnsMs)
+        if (connectMs >= 0) metrics.connect.record(connectMs)
+        if (tlsMs >= 0) metrics.tls.record(tlsMs)
+        if (ttfbMs >= 0) metrics.ttfb.record(ttfbMs)
+        if (bodyMs >= 0) metrics.body.record(bodyMs)
+        metrics.total.record(elapsedMs(callStartNs))
+
+        if (failed) metrics.failures.incrementAndGet()
+        metrics.bytesSent.addAndGet(bytesSent)
+        metrics.bytesReceived.addAndGet(bytesReceived)
+    }
+}
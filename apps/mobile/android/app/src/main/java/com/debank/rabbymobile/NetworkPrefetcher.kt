@@ -0,0 +1,141 @@
+package com.debank.rabbymobile
+
+import android.content.Context
+import android.os.SystemClock
+import android.util.Log
+import okhttp3.Call
+import okhttp3.Callback
+import okhttp3.Interceptor
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.Response
+import java.io.IOException
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Remembers the most requested cacheable endpoints of a session, and requests them again at next
+ * startup in parallel with JS loading, so their responses are already in the http cache when
+ * `NetworkingModule` asks for them.
+ *
+ * Only endpoints that a replay can warm are recorded: with a [HttpCachePolicy], others wouldn't be
+ * served from cache, and not signed, signed openapi requests can't be rebuilt here. Urls carrying
+ * an address are not recorded either, so no wallet address is stored in preferences.
+ */
+class NetworkPrefetcher(context: Context) {
+    companion object {
+        private const val TAG = "NetworkPrefetcher"
+        private const val PREFS_NAME = "rabby_network_prefetch"
+        private const val KEY_HOT_ENDPOINTS = "hot_endpoints"
+        private const val MAX_HOT_ENDPOINTS = 20
+        private const val PERSIST_INTERVAL_MS = 30_000L
+
+        // marks prefetch requests so they're not recorded as hits, stripped before send
+        private const val HEADER_PREFETCH = "X-Rabby-Prefetch"
+        // set by the openapi SignApiPlugin of JS, with a per-request timestamp and nonce
+        private const val HEADER_API_SIGN = "x-api-sign"
+
+        private val ADDRESS_PATTERN = Regex("0x[0-9a-fA-F]{40}")
+
+        private fun isReplayable(request: Request): Boolean {
+            return request.header(HEADER_API_SIGN) == null
+                && HttpCachePolicies.match(request) != null
+                && isStorable(request.url.toString())
+        }
+
+        private fun isStorable(url: String): Boolean {
+            return !ADDRESS_PATTERN.containsMatchIn(url)
+        }
+    }
+
+    private val prefs = context.applicationContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
+    private val hits = ConcurrentHashMap<String, AtomicInteger>()
+
+    @Volatile
+    private var lastPersistAt = 0L
+    private var lastPersisted = ""
+
+    val recorder = object : Interceptor {
+        override fun intercept(chain: Interceptor.Chain): Response {
+            val request = chain.request()
+            if (request.header(HEADER_PREFETCH) != null) {
+                return chain.proceed(request.newBuilder().removeHeader(HEADER_PREFETCH).build())
+            }
+
+            val response = chain.proceed(request)
+            if (response.code == 200 && isReplayable(request)) {
+                record(request.url.toString())
+            }
+            return response
+        }
+    }
+
+    private fun record(url: String) {
+        hits.getOrPut(url) { AtomicInteger() }.incrementAndGet()
+
+        val now = SystemClock.elapsedRealtime()
+        if (now - lastPersistAt >= PERSIST_INTERVAL_MS) {
+            lastPersistAt = now
+            persist()
+        }
+    }
+
+    @Synchronized
+    private fun persist() {
+        val hotEndpoints = hits.entries
+            .sortedByDescending { it.value.get() }
+            .take(MAX_HOT_ENDPOINTS)
+            .joinToString("\n") { it.key }
+        if (hotEndpoints == lastPersisted) return
+
+        lastPersisted = hotEndpoints
+        prefs.edit().putString(KEY_HOT_ENDPOINTS, hotEndpoints).apply()
+    }
+
+    /**
+     * Requests hot endpoints of the last session in background lane, drains their bodies so
+     * the cache entries get committed.
+     */
+    fun prefetch(client: OkHttpClient) {
+        client.dispatcher.executorService.execute {
+            val stored = prefs.getString(KEY_HOT_ENDPOINTS, null)
+                ?.split("\n")
+                ?.filter { it.isNotEmpty() }
+                ?: emptyList()
+            // drop entries persisted before addresses were excluded
+            val urls = stored.filter { isStorable(it) }
+            if (urls.size != stored.size) {
+                prefs.edit().putString(KEY_HOT_ENDPOINTS, urls.joinToString("\n")).apply()
+            }
+
+            Log.d(TAG, "prefetch ${urls.size} endpoints")
+            for (url in urls) {
+                val request = try {
+                    Request.Builder()
+                        .url(url)
+                        .header(HEADER_PREFETCH, "1")
+                        .header(PriorityLaneInterceptor.HEADER_PRIORITY, "background")
+                        .build()
+                } catch (e: IllegalArgumentException) {
+                    continue
+                }
+
+                client.newCall(request).enqueue(object : Callback {
+                    override fun onFailure(call: Call, e: IOException) {
+                        Log.d(TAG, "prefetch $url failed: ${e.message}")
+                    }
+
+                    override fun onResponse(call: Call, response: Response) {
+                        response.use {
+                            try {
+                                drainBody(it)
+                            } catch (e: IOException) {
+                                Log.d(TAG, "prefetch $url failed: ${e.message}")
+                            }
+                        }
+                    }
+                })
+            }
+        }
+    }
+}
@@ -8,6 +8,11 @@ public class OptionValue {
     public final String stringVal;
     public final Double numberVal;
 
+    // immutable, so shared instead of allocated on each lookup
+    private static final OptionValue NIL = new OptionValue(JSType.NIL, null, null, null);
+    private static final OptionValue TRUE = new OptionValue(JSType.BOOLEAN, Boolean.TRUE, null, null);
+    private static final OptionValue FALSE = new OptionValue(JSType.BOOLEAN, Boolean.FALSE, null, null);
+
     private OptionValue(JSType type, Boolean bool, String str, Double num) {
         this.jstype = type;
         this.boolVal = bool;
@@ -16,11 +21,11 @@ public class OptionValue {
     }
 
     public static OptionValue nil() {
-        return new OptionValue(JSType.NIL, null, null, null);
+        return NIL;
     }
 
     public static OptionValue ofBoolean(boolean value) {
-        return new OptionValue(JSType.BOOLEAN, value, null, null);
+        return value ? TRUE : FALSE;
     }
 
     public static OptionValue ofString(String value) {
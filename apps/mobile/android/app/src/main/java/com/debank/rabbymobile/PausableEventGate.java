@@ -0,0 +1,147 @@
+package com.debank.rabbymobile;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.ReactContext;
+import com.facebook.react.bridge.WritableMap;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Holds back non-critical events of a React context while its host is paused, so the JS
+ * runtime isn't woken up in background for work no one sees. Held events are sent in order
+ * on resume.
+ *
+ * Paused and resumed by the {@code LifecycleEventListener} of native modules, several modules
+ * may do it for the same context.
+ */
+public class PausableEventGate {
+  // beyond, held events are sent right away rather than piling up in memory
+  private static final int MAX_HELD_EVENTS = 256;
+
+  private static final Map<ReactContext, PausableEventGate> gates =
+    Collections.synchronizedMap(new WeakHashMap<>());
+
+  private static final class HeldEvent {
+    final String eventName;
+    final @Nullable WritableMap params;
+    final boolean collapsible;
+
+    HeldEvent(String eventName, @Nullable WritableMap params, boolean collapsible) {
+      this.eventName = eventName;
+      this.params = params;
+      this.collapsible = collapsible;
+    }
+  }
+
+  // weak, gates are values of a weak map keyed by the context
+  private final WeakReference<ReactContext> reactContextRef;
+  // guarded by `this`
+  private boolean paused = false;
+  private final List<HeldEvent> heldEvents = new ArrayList<>();
+
+  private PausableEventGate(ReactContext reactContext) {
+    this.reactContextRef = new WeakReference<>(reactContext);
+  }
+
+  public static PausableEventGate forContext(ReactContext reactContext) {
+    synchronized (gates) {
+      PausableEventGate gate = gates.get(reactContext);
+      if (gate == null) {
+        gate = new PausableEventGate(reactContext);
+        gates.put(reactContext, gate);
+      }
+      return gate;
+    }
+  }
+
+  public synchronized void pause() {
+    paused = true;
+  }
+
+  /**
+   * Sends held events, in the order they were sent.
+   */
+  public void resume() {
+    synchronized (this) {
+      paused = false;
+    }
+    sendHeldEvents();
+  }
+
+  private void sendHeldEvents() {
+    List<HeldEvent> events;
+    synchronized (this) {
+      if (heldEvents.isEmpty()) {
+        return;
+      }
+      events = new ArrayList<>(heldEvents);
+      heldEvents.clear();
+    }
+
+    ReactContext reactContext = reactContextRef.get();
+    if (reactContext == null) {
+      return;
+    }
+    for (HeldEvent event : events) {
+      RabbyUtils.rnCtxSendEvent(reactContext, event.eventName, event.params);
+    }
+  }
+
+  /**
+   * Sends the event, or holds it until resume if the host is paused.
+   */
+  public void send(String eventName, @Nullable WritableMap params) {
+    if (hold(eventName, params, false)) {
+      return;
+    }
+    // keep the order if the held events overflowed
+    sendHeldEvents();
+    sendNow(eventName, params);
+  }
+
+  /**
+   * Like {@link #send}, but only the latest of the events with this name is held while paused.
+   */
+  public void sendCollapsed(String eventName, @Nullable WritableMap params) {
+    if (hold(eventName, params, true)) {
+      return;
+    }
+    sendHeldEvents();
+    sendNow(eventName, params);
+  }
+
+  private synchronized boolean hold(String eventName, @Nullable WritableMap params, boolean collapsible) {
+    if (!paused) {
+      return false;
+    }
+
+    if (collapsible) {
+      Iterator<HeldEvent> iterator = heldEvents.iterator();
+      while (iterator.hasNext()) {
+        HeldEvent event = iterator.next();
+        if (event.collapsible && event.eventName.equals(eventName)) {
+          iterator.remove();
+        }
+      }
+    }
+    if (heldEvents.size() >= MAX_HELD_EVENTS) {
+      return false;
+    }
+    heldEvents.add(new HeldEvent(eventName, params, collapsible));
+    return true;
+  }
+
+  private void sendNow(String eventName, @Nullable WritableMap params) {
+    ReactContext reactContext = reactContextRef.get();
+    if (reactContext != null) {
+      RabbyUtils.rnCtxSendEvent(reactContext, eventName, params);
+    }
+  }
+}
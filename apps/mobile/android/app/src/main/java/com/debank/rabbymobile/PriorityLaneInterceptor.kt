@@ -0,0 +1,85 @@
+package com.debank.rabbymobile
+
+import android.os.Process
+import okhttp3.Interceptor
+import okhttp3.Response
+import okhttp3.ResponseBody.Companion.asResponseBody
+import okio.ForwardingSource
+import okio.buffer
+import java.io.IOException
+import java.util.concurrent.atomic.AtomicBoolean
+
+/**
+ * Runs requests marked by the `X-Rabby-Priority: background` header (stripped before send) in
+ * the background lane, at background thread priority until the response body is closed.
+ *
+ * This interceptor doesn't limit how many of them run, waiting here would park a thread of the
+ * dispatcher shared with interactive requests. Native background requests are bounded by the own
+ * dispatcher of the background client (see [UserAgentClientFactory]).
+ *
+ * Requests without the header go to the interactive lane, bounded by the dispatcher only.
+ */
+class PriorityLaneInterceptor : Interceptor {
+    enum class Lane { INTERACTIVE, BACKGROUND }
+
+    companion object {
+        const val HEADER_PRIORITY = "X-Rabby-Priority"
+
+        fun laneOf(priority: String?): Lane {
+            return when (priority?.lowercase()) {
+                "background", "low" -> Lane.BACKGROUND
+                else -> Lane.INTERACTIVE
+            }
+        }
+    }
+
+    @Throws(IOException::class)
+    override fun intercept(chain: Interceptor.Chain): Response {
+        var request = chain.request()
+        val priority = request.header(HEADER_PRIORITY) ?: return chain.proceed(request)
+
+        request = request.newBuilder().removeHeader(HEADER_PRIORITY).build()
+        if (laneOf(priority) != Lane.BACKGROUND) {
+            return chain.proceed(request)
+        }
+
+        val tid = Process.myTid()
+        val originalThreadPriority = Process.getThreadPriority(tid)
+        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND)
+
+        val released = AtomicBoolean(false)
+        val leaveLane = {
+            if (released.compareAndSet(false, true)) {
+                Process.setThreadPriority(tid, originalThreadPriority)
+            }
+        }
+
+        val response = try {
+            chain.proceed(request)
+        } catch (e: Throwable) {
+            leaveLane()
+            throw e
+        }
+
+        // the body is downloaded after this returns, stay in the lane until it's closed
+        val body = response.body
+        if (body == null) {
+            leaveLane()
+            return response
+        }
+
+        val source = object : ForwardingSource(body.source()) {
+            override fun close() {
+                try {
+                    super.close()
+                } finally {
+                    leaveLane()
+                }
+            }
+        }
+
+        return response.newBuilder()
+            .body(source.buffer().asResponseBody(body.contentType(), body.contentLength()))
+            .build()
+    }
+}
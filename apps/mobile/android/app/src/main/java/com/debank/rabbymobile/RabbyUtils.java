@@ -1,18 +1,198 @@
 package com.debank.rabbymobile;
 
+import android.os.Handler;
+import android.os.Looper;
+
 import androidx.annotation.Nullable;
 
+import com.facebook.react.bridge.LifecycleEventListener;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.ReadableType;
 import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.modules.core.DeviceEventManagerModule;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
 public class RabbyUtils {
+  // the emitter references its catalyst instance, hence the context through its modules,
+  // so it's held weakly too, the catalyst instance keeps it alive meanwhile.
+  private static final Map<ReactContext, WeakReference<DeviceEventManagerModule.RCTDeviceEventEmitter>> eventEmitters =
+    Collections.synchronizedMap(new WeakHashMap<>());
+
+  // about one frame
+  private static final long COALESCE_WINDOW_MS = 16L;
+  private static final Handler coalesceHandler = new Handler(Looper.getMainLooper());
+  // guarded by itself, keeps the order events were first sent in
+  private static final Map<CoalescedEventKey, PendingEvent> pendingEvents = new LinkedHashMap<>();
+  // contexts whose pending events are dropped on host destroy, guarded by pendingEvents
+  private static final Set<ReactContext> watchedContexts = Collections.newSetFromMap(new WeakHashMap<>());
+  private static final Runnable flushPendingEvents = new Runnable() {
+    @Override
+    public void run() {
+      List<PendingEvent> events;
+      synchronized (pendingEvents) {
+        events = new ArrayList<>(pendingEvents.values());
+        pendingEvents.clear();
+      }
+      for (PendingEvent event : events) {
+        // the instance may be torn down within the window, e.g. on reload
+        if (!event.reactContext.hasActiveReactInstance()) {
+          continue;
+        }
+        rnCtxSendEvent(event.reactContext, event.eventName, event.params);
+      }
+    }
+  };
+
+  private static final AtomicLong emittedEventCount = new AtomicLong();
+  private static final AtomicLong coalescedEventCount = new AtomicLong();
+
+  private static final class CoalescedEventKey {
+    final ReactContext reactContext;
+    final String eventName;
+
+    CoalescedEventKey(ReactContext reactContext, String eventName) {
+      this.reactContext = reactContext;
+      this.eventName = eventName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof CoalescedEventKey)) return false;
+      CoalescedEventKey other = (CoalescedEventKey) o;
+      return reactContext == other.reactContext && eventName.equals(other.eventName);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(reactContext) + eventName.hashCode();
+    }
+  }
+
+  private static final class PendingEvent {
+    final ReactContext reactContext;
+    final String eventName;
+    final @Nullable WritableMap params;
+
+    PendingEvent(ReactContext reactContext, String eventName, @Nullable WritableMap params) {
+      this.reactContext = reactContext;
+      this.eventName = eventName;
+      this.params = params;
+    }
+  }
+
+  private static DeviceEventManagerModule.RCTDeviceEventEmitter getEventEmitter(ReactContext reactContext) {
+    WeakReference<DeviceEventManagerModule.RCTDeviceEventEmitter> ref = eventEmitters.get(reactContext);
+    DeviceEventManagerModule.RCTDeviceEventEmitter emitter = ref != null ? ref.get() : null;
+    if (emitter == null) {
+      emitter = reactContext.getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class);
+      eventEmitters.put(reactContext, new WeakReference<>(emitter));
+    }
+    return emitter;
+  }
+
   static public void rnCtxSendEvent(ReactContext reactContext, String eventName, @Nullable WritableMap params) {
-    reactContext
-      .getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
-      .emit(eventName, params);
+    getEventEmitter(reactContext).emit(eventName, params);
+    emittedEventCount.incrementAndGet();
+  }
+
+  /**
+   * Sends the event within a frame, only the latest params are sent if the same event is sent
+   * again on the same context meanwhile. For state-like events, where only the last value matters.
+   */
+  static public void rnCtxSendEventCoalesced(final ReactContext reactContext, String eventName, @Nullable WritableMap params) {
+    CoalescedEventKey key = new CoalescedEventKey(reactContext, eventName);
+    boolean schedule;
+    boolean watch;
+    synchronized (pendingEvents) {
+      schedule = pendingEvents.isEmpty();
+      if (pendingEvents.put(key, new PendingEvent(reactContext, eventName, params)) != null) {
+        coalescedEventCount.incrementAndGet();
+      }
+      watch = watchedContexts.add(reactContext);
+    }
+    if (watch) {
+      reactContext.addLifecycleEventListener(new LifecycleEventListener() {
+        @Override
+        public void onHostResume() {}
+
+        @Override
+        public void onHostPause() {}
+
+        @Override
+        public void onHostDestroy() {
+          dropPendingEvents(reactContext);
+        }
+      });
+    }
+    if (schedule) {
+      coalesceHandler.postDelayed(flushPendingEvents, COALESCE_WINDOW_MS);
+    }
+  }
+
+  /**
+   * Drops the coalesced events of the context not sent yet, e.g. when its host is destroyed.
+   */
+  public static void dropPendingEvents(ReactContext reactContext) {
+    synchronized (pendingEvents) {
+      Iterator<CoalescedEventKey> it = pendingEvents.keySet().iterator();
+      while (it.hasNext()) {
+        if (it.next().reactContext == reactContext) {
+          it.remove();
+        }
+      }
+    }
+  }
+
+  /**
+   * Like {@link #rnCtxSendEventCoalesced(ReactContext, String, WritableMap)}, only if the emitter has
+   * JS listeners for the event.
+   *
+   * @return whether the event was queued
+   */
+  static public boolean rnCtxSendEventCoalesced(ReactContext reactContext, ListenerAwareEmitter emitter, String eventName, @Nullable WritableMap params) {
+    if (!emitter.hasListeners(eventName)) {
+      return false;
+    }
+    rnCtxSendEventCoalesced(reactContext, eventName, params);
+    return true;
+  }
+
+  /**
+   * @return count of events sent to JS
+   */
+  public static long getEmittedEventCount() {
+    return emittedEventCount.get();
+  }
+
+  /**
+   * @return count of coalesced events dropped as superseded before being sent
+   */
+  public static long getCoalescedEventCount() {
+    return coalescedEventCount.get();
+  }
+
+  /**
+   * Sends the event only if the emitter has JS listeners for it.
+   *
+   * @return whether the event was sent
+   */
+  static public boolean rnCtxSendEvent(ReactContext reactContext, ListenerAwareEmitter emitter, String eventName, @Nullable WritableMap params) {
+    if (!emitter.hasListeners(eventName)) {
+      return false;
+    }
+    rnCtxSendEvent(reactContext, eventName, params);
+    return true;
   }
 
   public static OptionValue parseOptionDict(@Nullable ReadableMap options, String key) {
@@ -33,4 +213,38 @@ public class RabbyUtils {
             return OptionValue.nil();
     }
   }
+
+  /*
+   * Readers of a single typed option, without allocating an OptionValue nor boxing.
+   * `fallback` is returned if the key is missing or of another type.
+   */
+
+  public static boolean parseBooleanOption(@Nullable ReadableMap options, String key, boolean fallback) {
+    if (options == null || !options.hasKey(key) || options.getType(key) != ReadableType.Boolean) {
+      return fallback;
+    }
+    return options.getBoolean(key);
+  }
+
+  public static double parseNumberOption(@Nullable ReadableMap options, String key, double fallback) {
+    if (options == null || !options.hasKey(key) || options.getType(key) != ReadableType.Number) {
+      return fallback;
+    }
+    return options.getDouble(key);
+  }
+
+  public static int parseIntOption(@Nullable ReadableMap options, String key, int fallback) {
+    if (options == null || !options.hasKey(key) || options.getType(key) != ReadableType.Number) {
+      return fallback;
+    }
+    return (int) options.getDouble(key);
+  }
+
+  @Nullable
+  public static String parseStringOption(@Nullable ReadableMap options, String key, @Nullable String fallback) {
+    if (options == null || !options.hasKey(key) || options.getType(key) != ReadableType.String) {
+      return fallback;
+    }
+    return options.getString(key);
+  }
 }
@@ -0,0 +1,138 @@
+package com.debank.rabbymobile
+
+import okhttp3.Interceptor
+import okhttp3.MediaType
+import okhttp3.Request
+import okhttp3.Response
+import okhttp3.ResponseBody.Companion.toResponseBody
+import java.io.IOException
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.TimeUnit
+
+/**
+ * Collapses concurrent identical GET requests into one network call. Requests are identical when
+ * their url and [KEY_HEADERS] match, other headers (e.g. the per-request signature of openapi)
+ * don't change the response.
+ *
+ * The first request proceeds, the others wait for it and get a copy of its response. Its body is
+ * buffered only when someone waits for it, up to [MAX_SHARED_BODY_BYTES] whether its length is
+ * known or not (decoded, chunked). Waiters fall back to their own call if the first one fails,
+ * times out, or its body is too large to share.
+ */
+class RequestCoalescingInterceptor : Interceptor {
+    companion object {
+        // bodies above this are not buffered for sharing
+        private const val MAX_SHARED_BODY_BYTES = 2L * 1024 * 1024
+
+        // lower-cased names of the request headers that can change the response
+        private val KEY_HEADERS = setOf(
+            "accept",
+            "accept-language",
+            "authorization",
+            "cache-control",
+            "cookie",
+            "range",
+            "x-api-key",
+        )
+    }
+
+    private class SharedResponse(
+        val response: Response,
+        val body: ByteArray,
+        val contentType: MediaType?
+    ) {
+        fun copyFor(request: Request): Response {
+            return response.newBuilder()
+                .request(request)
+                .body(body.toResponseBody(contentType))
+                .build()
+        }
+    }
+
+    private class Leader {
+        val result = CompletableFuture<SharedResponse?>()
+        // guarded by inFlight
+        var waiters = 0
+    }
+
+    private val inFlight = HashMap<String, Leader>()
+
+    @Throws(IOException::class)
+    override fun intercept(chain: Interceptor.Chain): Response {
+        val request = chain.request()
+        if (request.method != "GET" || request.body != null) {
+            return chain.proceed(request)
+        }
+
+        val key = coalescingKey(request)
+        val pending = Leader()
+        val leader = synchronized(inFlight) {
+            val existing = inFlight[key]
+            if (existing != null) {
+                existing.waiters++
+            } else {
+                inFlight[key] = pending
+            }
+            existing
+        }
+
+        if (leader != null) {
+            val shared = try {
+                leader.result.get((chain.connectTimeoutMillis() + chain.readTimeoutMillis()).toLong(), TimeUnit.MILLISECONDS)
+            } catch (e: Exception) {
+                null
+            }
+            return shared?.copyFor(request) ?: chain.proceed(request)
+        }
+
+        var shared: SharedResponse? = null
+        try {
+            val response = chain.proceed(request)
+
+            // no one joins once the key is removed, so the waiters count is final
+            val waiters = synchronized(inFlight) {
+                inFlight.remove(key)
+                pending.waiters
+            }
+            val body = response.body
+            val contentLength = body?.contentLength() ?: -1L
+            // decoded and chunked bodies have no known length, they're shared once buffered
+            if (body != null && waiters > 0 && contentLength <= MAX_SHARED_BODY_BYTES) {
+                // peek keeps the body readable for this caller
+                val peeked = try {
+                    response.peekBody(MAX_SHARED_BODY_BYTES + 1)
+                } catch (e: IOException) {
+                    response.close()
+                    throw e
+                }
+                // longer than peeked, too large to share
+                if (peeked.contentLength() <= MAX_SHARED_BODY_BYTES) {
+                    shared = SharedResponse(
+                        response.newBuilder().body(null).build(),
+                        peeked.bytes(),
+                        body.contentType()
+                    )
+                }
+            }
+
+            return response
+        } finally {
+            synchronized(inFlight) {
+                if (inFlight[key] === pending) inFlight.remove(key)
+            }
+            pending.result.complete(shared)
+        }
+    }
+
+    private fun coalescingKey(request: Request): String {
+        val builder = StringBuilder(request.method).append(' ').append(request.url.toString())
+        val headers = request.headers
+        for (i in 0 until headers.size) {
+            val name = headers.name(i).lowercase()
+            if (name in KEY_HEADERS) {
+                builder.append('\n').append(name).append(':').append(headers.value(i))
+            }
+        }
+        return builder.toString()
+    }
+}
@@ -0,0 +1,63 @@
+package com.debank.rabbymobile;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+/**
+ * A small pool of capture bitmaps, keyed by size and config, so repeated screenshots reuse
+ * the same multi-megabyte native allocations instead of creating and recycling them each time.
+ */
+public class ScreenshotBitmapPool {
+    private final int maxSize;
+    private final ArrayDeque<Bitmap> bitmaps = new ArrayDeque<>();
+
+    public ScreenshotBitmapPool(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns a cleared pooled bitmap matching size and config, or a new one.
+     */
+    public synchronized Bitmap acquire(int width, int height, Bitmap.Config config) {
+        Iterator<Bitmap> iterator = bitmaps.iterator();
+        while (iterator.hasNext()) {
+            Bitmap bitmap = iterator.next();
+            if (bitmap.getWidth() == width && bitmap.getHeight() == height && bitmap.getConfig() == config) {
+                iterator.remove();
+                bitmap.eraseColor(Color.TRANSPARENT);
+                return bitmap;
+            }
+        }
+
+        return Bitmap.createBitmap(width, height, config);
+    }
+
+    /**
+     * Gives a bitmap back to the pool, the caller must not use it anymore.
+     * The least recently released bitmap is recycled when the pool is full.
+     */
+    public synchronized void release(Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled()) {
+            return;
+        }
+        if (!bitmap.isMutable() || maxSize <= 0) {
+            bitmap.recycle();
+            return;
+        }
+
+        if (bitmaps.size() >= maxSize) {
+            bitmaps.pollLast().recycle();
+        }
+        bitmaps.addFirst(bitmap);
+    }
+
+    public synchronized void clear() {
+        for (Bitmap bitmap : bitmaps) {
+            bitmap.recycle();
+        }
+        bitmaps.clear();
+    }
+}
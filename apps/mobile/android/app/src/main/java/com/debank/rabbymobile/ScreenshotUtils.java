@@ -1,9 +1,26 @@
 package com.debank.rabbymobile;
 
+import android.app.Activity;
 import android.graphics.Bitmap;
 import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.PixelCopy;
 import android.view.View;
+import android.view.Window;
+import androidx.annotation.Nullable;
+import com.facebook.react.bridge.ReadableMap;
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
 import android.util.Base64;
 
 /**
@@ -14,6 +31,195 @@ import android.util.Base64;
  */
 public class ScreenshotUtils {
 
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private static final Paint scalePaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private static final String CAPTURE_FILE_PREFIX = "capture-";
+    private static final int FILE_BUFFER_SIZE = 64 * 1024;
+
+    // a full-screen capture and its downscaled copy
+    private static final ScreenshotBitmapPool bitmapPool = new ScreenshotBitmapPool(2);
+
+    private static final int ENCODE_BUFFER_INITIAL_SIZE = 512 * 1024;
+    // larger buffers are dropped after use instead of being kept for the next capture
+    private static final int ENCODE_BUFFER_MAX_RETAINED_SIZE = 8 * 1024 * 1024;
+    private static final ThreadLocal<ReusableByteArrayOutputStream> encodeBuffer = new ThreadLocal<>();
+
+    /**
+     * A ByteArrayOutputStream exposing its buffer, so its content can be read without a copy.
+     */
+    private static class ReusableByteArrayOutputStream extends ByteArrayOutputStream {
+        ReusableByteArrayOutputStream(int size) {
+            super(size);
+        }
+
+        byte[] getBuffer() {
+            return buf;
+        }
+
+        int capacity() {
+            return buf.length;
+        }
+    }
+
+    /**
+     * How a captured bitmap is downscaled and encoded.
+     */
+    public static class EncodeOptions {
+        public enum Format { PNG, WEBP, JPEG }
+
+        public enum Output { BASE64, FILE }
+
+        public static final EncodeOptions DEFAULT = new EncodeOptions(0, 0, Format.PNG, 100, Output.BASE64);
+
+        /** 0 means no limit */
+        public final int maxWidth;
+        /** 0 means no limit */
+        public final int maxHeight;
+        public final Format format;
+        /** 0-100, ignored by PNG */
+        public final int quality;
+        /** whether the image is carried as Base64 or written to a cache file */
+        public final Output output;
+
+        public EncodeOptions(int maxWidth, int maxHeight, Format format, int quality, Output output) {
+            this.maxWidth = Math.max(0, maxWidth);
+            this.maxHeight = Math.max(0, maxHeight);
+            this.format = format;
+            this.quality = Math.min(100, Math.max(0, quality));
+            this.output = output;
+        }
+
+        /**
+         * Reads options passed from JS, missing or invalid keys are set to {@link #DEFAULT}.
+         */
+        public static EncodeOptions fromMap(@Nullable ReadableMap options) {
+            if (options == null) {
+                return DEFAULT;
+            }
+            return new EncodeOptions(
+                RabbyUtils.parseIntOption(options, "maxWidth", DEFAULT.maxWidth),
+                RabbyUtils.parseIntOption(options, "maxHeight", DEFAULT.maxHeight),
+                parseFormat(RabbyUtils.parseStringOption(options, "format", null), DEFAULT.format),
+                RabbyUtils.parseIntOption(options, "quality", DEFAULT.quality),
+                parseOutput(RabbyUtils.parseStringOption(options, "output", null), DEFAULT.output)
+            );
+        }
+
+        public static Format parseFormat(@Nullable String format, Format fallback) {
+            if (format == null) {
+                return fallback;
+            }
+            switch (format.toLowerCase()) {
+                case "png":
+                    return Format.PNG;
+                case "webp":
+                    return Format.WEBP;
+                case "jpg":
+                case "jpeg":
+                    return Format.JPEG;
+                default:
+                    return fallback;
+            }
+        }
+
+        public static Output parseOutput(@Nullable String output, Output fallback) {
+            if (output == null) {
+                return fallback;
+            }
+            switch (output.toLowerCase()) {
+                case "base64":
+                    return Output.BASE64;
+                case "file":
+                    return Output.FILE;
+                default:
+                    return fallback;
+            }
+        }
+
+        public String imageType() {
+            switch (format) {
+                case WEBP:
+                    return "webp";
+                case JPEG:
+                    return "jpeg";
+                case PNG:
+                default:
+                    return "png";
+            }
+        }
+
+        public String fileExtension() {
+            return format == Format.JPEG ? "jpg" : imageType();
+        }
+
+        @SuppressWarnings("deprecation")
+        Bitmap.CompressFormat compressFormat() {
+            switch (format) {
+                case WEBP:
+                    // WEBP is lossy below quality 100 before Android 11
+                    return Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+                        ? Bitmap.CompressFormat.WEBP_LOSSY
+                        : Bitmap.CompressFormat.WEBP;
+                case JPEG:
+                    return Bitmap.CompressFormat.JPEG;
+                case PNG:
+                default:
+                    return Bitmap.CompressFormat.PNG;
+            }
+        }
+    }
+
+    public interface CaptureCallback {
+        /**
+         * Called on the UI thread.
+         *
+         * @param bitmap The captured bitmap, owned by the callee until given back with
+         *               {@link #releaseBitmap}, or null if capture fails.
+         */
+        void onCaptured(@Nullable Bitmap bitmap);
+    }
+
+    /**
+     * Captures the window of the activity by copying its surface with {@link PixelCopy}, which
+     * reads the hardware-rendered frame instead of re-drawing the hierarchy on the CPU, and also
+     * includes hardware-only content. Falls back to {@link #captureViewToBitmap} if the copy fails.
+     * Must be called on the UI thread.
+     *
+     * @param activity The activity whose window to capture.
+     * @param callback Receives the bitmap on the UI thread.
+     */
+    public static void captureWindowAsync(Activity activity, final CaptureCallback callback) {
+        final Window window = activity.getWindow();
+        final View rootView = window.getDecorView().getRootView();
+
+        int width = rootView.getWidth();
+        int height = rootView.getHeight();
+        if (width <= 0 || height <= 0 || !rootView.isHardwareAccelerated()) {
+            callback.onCaptured(captureViewToBitmap(rootView));
+            return;
+        }
+
+        int[] location = new int[2];
+        rootView.getLocationInWindow(location);
+        Rect source = new Rect(location[0], location[1], location[0] + width, location[1] + height);
+
+        final Bitmap bitmap = bitmapPool.acquire(width, height, Bitmap.Config.ARGB_8888);
+        try {
+            PixelCopy.request(window, source, bitmap, result -> {
+                if (result == PixelCopy.SUCCESS) {
+                    callback.onCaptured(bitmap);
+                } else {
+                    releaseBitmap(bitmap);
+                    callback.onCaptured(captureViewToBitmap(rootView));
+                }
+            }, mainHandler);
+        } catch (IllegalArgumentException e) {
+            // the window has no valid surface (yet)
+            releaseBitmap(bitmap);
+            callback.onCaptured(captureViewToBitmap(rootView));
+        }
+    }
+
     /**
      * Captures the provided View as a PNG image and returns its Base64 representation.
      * The method ensures the View has valid dimensions before drawing.
@@ -23,6 +229,26 @@ public class ScreenshotUtils {
      * @return A Base64-encoded string of the PNG image, or null if capture fails.
      */
     public static String captureViewToPngBase64(View view) {
+        Bitmap bitmap = captureViewToBitmap(view);
+        if (bitmap == null) {
+            return null;
+        }
+
+        // Convert the bitmap to a Base64-encoded PNG string.
+        String pngBase64 = bitmapToPngBase64(bitmap);
+        releaseBitmap(bitmap); // Back to the pool, recycled if it's full.
+        return pngBase64;
+    }
+
+    /**
+     * Draws the provided View into a new bitmap. Must be called on the UI thread,
+     * encode the result with {@link #encodeToBase64} off it.
+     *
+     * @param view The View to capture.
+     * @return The captured bitmap, owned by the caller until given back with {@link #releaseBitmap},
+     *         or null if capture fails.
+     */
+    public static Bitmap captureViewToBitmap(View view) {
         if (view == null) {
             return null;
         }
@@ -47,8 +273,8 @@ public class ScreenshotUtils {
             return null;
         }
 
-        // Create a bitmap with alpha channel support (ARGB_8888).
-        Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        // Create a bitmap with alpha channel support (ARGB_8888), reused from previous captures if possible.
+        Bitmap bitmap = bitmapPool.acquire(width, height, Bitmap.Config.ARGB_8888);
         Canvas canvas = new Canvas(bitmap);
 
         // Let the view draw itself completely—including its background (if any),
@@ -57,10 +283,143 @@ public class ScreenshotUtils {
         //       cannot be captured this way, but standard UI elements will render correctly.
         view.draw(canvas);
 
-        // Convert the bitmap to a Base64-encoded PNG string.
-        String pngBase64 = bitmapToPngBase64(bitmap);
-        bitmap.recycle(); // Free native memory promptly to avoid OOM.
-        return pngBase64;
+        return bitmap;
+    }
+
+    /**
+     * Encodes a captured bitmap to a Base64 PNG string and releases it. Safe to call off the UI thread.
+     *
+     * @param bitmap The bitmap returned by {@link #captureViewToBitmap}.
+     * @return Base64 string of the compressed PNG, or null if input is invalid.
+     */
+    public static String encodeToPngBase64(Bitmap bitmap) {
+        return encodeToBase64(bitmap, EncodeOptions.DEFAULT);
+    }
+
+    /**
+     * Downscales a captured bitmap to fit the max dimensions of the options, encodes it in their
+     * format, and releases it. Safe to call off the UI thread.
+     *
+     * @param bitmap The captured bitmap.
+     * @param options How to downscale and encode.
+     * @return Base64 string of the encoded image, or null if input is invalid.
+     */
+    public static String encodeToBase64(Bitmap bitmap, EncodeOptions options) {
+        if (bitmap == null) {
+            return null;
+        }
+
+        Bitmap scaled = downscale(bitmap, options.maxWidth, options.maxHeight);
+        String base64 = bitmapToBase64(scaled, options.compressFormat(), options.quality);
+        if (scaled != bitmap) {
+            releaseBitmap(scaled);
+        }
+        releaseBitmap(bitmap);
+        return base64;
+    }
+
+    /**
+     * Downscales a captured bitmap like {@link #encodeToBase64}, then streams the encoded image
+     * straight into a new file of the directory, and releases the bitmap. Safe to call off the UI thread.
+     *
+     * @param bitmap The captured bitmap.
+     * @param options How to downscale and encode.
+     * @param directory Where to create the file, created if missing.
+     * @return The written file, or null if encoding fails.
+     */
+    public static File encodeToFile(Bitmap bitmap, EncodeOptions options, File directory) {
+        if (bitmap == null) {
+            return null;
+        }
+
+        Bitmap scaled = downscale(bitmap, options.maxWidth, options.maxHeight);
+        File file = null;
+        if (directory.isDirectory() || directory.mkdirs()) {
+            file = new File(directory, CAPTURE_FILE_PREFIX + System.currentTimeMillis() + "." + options.fileExtension());
+            if (!bitmapToFile(scaled, options.compressFormat(), options.quality, file)) {
+                file.delete();
+                file = null;
+            }
+        }
+
+        if (scaled != bitmap) {
+            releaseBitmap(scaled);
+        }
+        releaseBitmap(bitmap);
+        return file;
+    }
+
+    /**
+     * Deletes captures of the directory written by {@link #encodeToFile}, keeping the most
+     * recent `keepCount` ones not older than `maxAgeMs`.
+     */
+    public static void evictCaptureFiles(File directory, int keepCount, long maxAgeMs) {
+        File[] files = directory.listFiles((dir, name) -> name.startsWith(CAPTURE_FILE_PREFIX));
+        if (files == null) {
+            return;
+        }
+
+        Arrays.sort(files, (a, b) -> Long.compare(b.lastModified(), a.lastModified()));
+        long expiredBefore = System.currentTimeMillis() - maxAgeMs;
+        for (int i = 0; i < files.length; i++) {
+            if (i >= keepCount || files[i].lastModified() < expiredBefore) {
+                files[i].delete();
+            }
+        }
+    }
+
+    /**
+     * Gives a captured bitmap back for reuse by next captures.
+     */
+    public static void releaseBitmap(Bitmap bitmap) {
+        bitmapPool.release(bitmap);
+    }
+
+    /**
+     * Frees pooled bitmaps, call when no capture is expected for a while.
+     */
+    public static void trimMemory() {
+        bitmapPool.clear();
+    }
+
+    /**
+     * Returns a bitmap fitting within the max dimensions, keeping aspect ratio. Returns the input
+     * itself if it already fits, otherwise a pooled bitmap to give back with {@link #releaseBitmap}.
+     */
+    public static Bitmap downscale(Bitmap bitmap, int maxWidth, int maxHeight) {
+        int width = bitmap.getWidth();
+        int height = bitmap.getHeight();
+
+        float scale = 1f;
+        if (maxWidth > 0 && width > maxWidth) {
+            scale = Math.min(scale, (float) maxWidth / width);
+        }
+        if (maxHeight > 0 && height > maxHeight) {
+            scale = Math.min(scale, (float) maxHeight / height);
+        }
+        if (scale >= 1f) {
+            return bitmap;
+        }
+
+        int targetWidth = Math.max(1, Math.round(width * scale));
+        int targetHeight = Math.max(1, Math.round(height * scale));
+        Bitmap.Config config = bitmap.getConfig() != null ? bitmap.getConfig() : Bitmap.Config.ARGB_8888;
+        Bitmap scaled = bitmapPool.acquire(targetWidth, targetHeight, config);
+
+        Canvas canvas = new Canvas(scaled);
+        canvas.scale((float) targetWidth / width, (float) targetHeight / height);
+        canvas.drawBitmap(bitmap, 0, 0, scalePaint);
+        return scaled;
+    }
+
+    private static boolean bitmapToFile(Bitmap bitmap, Bitmap.CompressFormat format, int quality, File file) {
+        try (FileChannel channel = new FileOutputStream(file).getChannel();
+             OutputStream outputStream = new BufferedOutputStream(Channels.newOutputStream(channel), FILE_BUFFER_SIZE)) {
+            return bitmap.compress(format, quality, outputStream);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
     }
 
     /**
@@ -70,23 +429,36 @@ public class ScreenshotUtils {
      * @return Base64 string of the compressed PNG, or null if input is invalid.
      */
     private static String bitmapToPngBase64(Bitmap bitmap) {
+        return bitmapToBase64(bitmap, Bitmap.CompressFormat.PNG, 100);
+    }
+
+    /**
+     * Converts a Bitmap to a Base64-encoded string of the given format without line wrapping.
+     *
+     * @param bitmap The input bitmap. Must not be null.
+     * @return Base64 string of the compressed image, or null if input is invalid.
+     */
+    private static String bitmapToBase64(Bitmap bitmap, Bitmap.CompressFormat format, int quality) {
         if (bitmap == null) {
             return null;
         }
 
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ReusableByteArrayOutputStream outputStream = encodeBuffer.get();
+        if (outputStream == null) {
+            outputStream = new ReusableByteArrayOutputStream(ENCODE_BUFFER_INITIAL_SIZE);
+            encodeBuffer.set(outputStream);
+        }
+
         try {
-            bitmap.compress(Bitmap.CompressFormat.PNG, 100, outputStream);
-            byte[] pngBytes = outputStream.toByteArray();
-            return Base64.encodeToString(pngBytes, Base64.NO_WRAP);
+            bitmap.compress(format, quality, outputStream);
+            return Base64.encodeToString(outputStream.getBuffer(), 0, outputStream.size(), Base64.NO_WRAP);
         } catch (Exception e) {
             e.printStackTrace();
             return null;
         } finally {
-            try {
-                outputStream.close();
-            } catch (Exception ignored) {
-                // Ignore close failure.
+            outputStream.reset();
+            if (outputStream.capacity() > ENCODE_BUFFER_MAX_RETAINED_SIZE) {
+                encodeBuffer.remove();
             }
         }
     }
@@ -0,0 +1,123 @@
+package com.debank.rabbymobile;
+
+import android.app.Activity;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Window;
+import android.view.WindowManager;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.LifecycleEventListener;
+import com.facebook.react.bridge.ReactContext;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Single owner of FLAG_SECURE on the activity window, shared by modules preventing screenshots.
+ *
+ * Each owner (module) requests secure or not, and the window is secure while any of them
+ * requests it. Requests made in a row are applied at once on the UI thread, and the window
+ * is only touched if its flag actually changes, as each update relayouts the window.
+ *
+ * Requests are recorded even without an activity, and applied again to the window of the
+ * activity on each host resume, so it follows activities created meanwhile.
+ */
+public class SecureWindowManager {
+  private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+  // below guarded by the class
+  private static final Set<String> secureOwners = new HashSet<>();
+  private static WeakReference<Activity> activityRef = new WeakReference<>(null);
+  private static boolean applyPending = false;
+  private static final Set<ReactContext> attachedContexts =
+    Collections.newSetFromMap(new WeakHashMap<ReactContext, Boolean>());
+
+  private static final Runnable applySecureFlag = new Runnable() {
+    @Override
+    public void run() {
+      Activity activity;
+      boolean secure;
+      synchronized (SecureWindowManager.class) {
+        applyPending = false;
+        activity = activityRef.get();
+        secure = !secureOwners.isEmpty();
+      }
+      if (activity == null || activity.isFinishing()) {
+        return;
+      }
+
+      Window window = activity.getWindow();
+      boolean isSecure = (window.getAttributes().flags & WindowManager.LayoutParams.FLAG_SECURE) != 0;
+      if (isSecure == secure) {
+        return;
+      }
+      if (secure) {
+        window.setFlags(WindowManager.LayoutParams.FLAG_SECURE, WindowManager.LayoutParams.FLAG_SECURE);
+      } else {
+        window.clearFlags(WindowManager.LayoutParams.FLAG_SECURE);
+      }
+    }
+  };
+
+  /**
+   * Sets whether the owner wants the window of the activity secure, may be called from any thread.
+   * Calling it again with the same value has no effect. Without an activity, the request is
+   * applied once the host resumes.
+   */
+  public static void requestSecure(@Nullable Activity activity, String owner, boolean secure) {
+    synchronized (SecureWindowManager.class) {
+      if (secure) {
+        secureOwners.add(owner);
+      } else {
+        secureOwners.remove(owner);
+      }
+    }
+    scheduleApply(activity);
+  }
+
+  /**
+   * Applies the requests to the current activity each time the host of the context resumes.
+   * Calling it again with the same context has no effect.
+   */
+  public static void attach(final ReactContext reactContext) {
+    synchronized (SecureWindowManager.class) {
+      if (!attachedContexts.add(reactContext)) {
+        return;
+      }
+    }
+    reactContext.addLifecycleEventListener(new LifecycleEventListener() {
+      @Override
+      public void onHostResume() {
+        scheduleApply(reactContext.getCurrentActivity());
+      }
+
+      @Override
+      public void onHostPause() {}
+
+      @Override
+      public void onHostDestroy() {}
+    });
+  }
+
+  private static void scheduleApply(@Nullable Activity activity) {
+    synchronized (SecureWindowManager.class) {
+      if (activity != null) {
+        activityRef = new WeakReference<>(activity);
+      }
+      if (applyPending) {
+        return;
+      }
+      applyPending = true;
+    }
+    mainHandler.post(applySecureFlag);
+  }
+
+  public static synchronized boolean isSecureRequested() {
+    return !secureOwners.isEmpty();
+  }
+}
@@ -0,0 +1,87 @@
+package com.debank.rabbymobile;
+
+import android.os.SystemClock;
+
+/**
+ * Wall clock time which can't be moved by changing the device time: it's the wall time when
+ * the process started ({@link #init()} from {@code MainApplication.onCreate}), advanced by the
+ * monotonic {@link SystemClock#elapsedRealtime()}.
+ *
+ * The anchor is never moved afterwards, so a legitimate correction of the device clock after
+ * launch (e.g. network time sync of a device that booted with a wrong clock) is not picked up:
+ * it's reported as a wall clock change until the process restarts.
+ *
+ * Reads are lock-free and allocation-free, so they're cheap enough for synchronous calls
+ * from the main JS runtime and worker threads.
+ */
+public class TrustedClock {
+  // wall clock and trusted time may drift apart this much before the wall clock is considered changed
+  private static final long TOLERANCE_MS = 2000L;
+
+  private static final class Anchor {
+    final long wallMs = System.currentTimeMillis();
+    final long elapsedMs = SystemClock.elapsedRealtime();
+  }
+
+  private static volatile Anchor anchor;
+
+  private static volatile int timeChangeCount = 0;
+  private static volatile long lastTimeChangeAtMs = 0;
+
+  /**
+   * Anchors the clock to the current wall time, only the first call has an effect. Call it as
+   * early as possible at process start.
+   */
+  public static void init() {
+    if (anchor == null) {
+      synchronized (TrustedClock.class) {
+        if (anchor == null) {
+          anchor = new Anchor();
+        }
+      }
+    }
+  }
+
+  public static long nowMs() {
+    Anchor current = anchor;
+    if (current == null) {
+      // read before MainApplication.onCreate, anchor now
+      init();
+      current = anchor;
+    }
+    return current.wallMs + (SystemClock.elapsedRealtime() - current.elapsedMs);
+  }
+
+  /**
+   * @return how far the device wall clock is ahead of the trusted time, negative if behind
+   */
+  public static long wallClockOffsetMs() {
+    return System.currentTimeMillis() - nowMs();
+  }
+
+  /**
+   * @return whether the device wall clock was moved away from the trusted time since the process started
+   */
+  public static boolean isWallClockChanged() {
+    return Math.abs(wallClockOffsetMs()) > TOLERANCE_MS;
+  }
+
+  public static int getTimeChangeCount() {
+    return timeChangeCount;
+  }
+
+  /**
+   * @return trusted time of the last time or timezone change broadcast, 0 if none
+   */
+  public static long getLastTimeChangeAtMs() {
+    return lastTimeChangeAtMs;
+  }
+
+  /**
+   * Called on `ACTION_TIME_CHANGED`/`ACTION_TIMEZONE_CHANGED`, from the main thread.
+   */
+  static void onTimeChanged() {
+    lastTimeChangeAtMs = nowMs();
+    timeChangeCount = timeChangeCount + 1;
+  }
+}
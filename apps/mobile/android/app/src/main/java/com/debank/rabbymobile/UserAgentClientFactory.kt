@@ -1,14 +1,86 @@
 package com.debank.rabbymobile
 
+import android.content.Context
+import android.net.ConnectivityManager
+import android.net.LinkProperties
+import android.net.Network
+import android.os.StatFs
 import android.util.Log
 
 import com.facebook.react.modules.network.OkHttpClientFactory
 import com.facebook.react.modules.network.ReactCookieJarContainer
+import com.facebook.react.modules.network.OkHttpClientProvider
+import okhttp3.Cache
+import okhttp3.Call
+import okhttp3.Callback
+import okhttp3.ConnectionPool
 import okhttp3.Dispatcher
 import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.Response
+import java.io.File
+import java.io.IOException
 import java.util.concurrent.TimeUnit
 
-class UserAgentClientFactory : OkHttpClientFactory {
+class UserAgentClientFactory @JvmOverloads constructor(
+    private val context: Context,
+    private val config: NetworkClientConfig = NetworkClientConfig.DEFAULT
+) : OkHttpClientFactory {
+    companion object {
+        private const val HTTP_CACHE_DIR = "http-cache"
+        private const val MIN_HTTP_CACHE_SIZE = 10L * 1024 * 1024
+        private const val MAX_HTTP_CACHE_SIZE = 50L * 1024 * 1024
+
+        // concurrent requests of the background client, queued by its own dispatcher
+        private const val BACKGROUND_MAX_REQUESTS = 2
+
+        // one Cache instance per directory, shared by every client we create
+        @Volatile
+        private var httpCache: Cache? = null
+
+        fun getHttpCache(context: Context): Cache {
+            return httpCache ?: synchronized(this) {
+                httpCache ?: createHttpCache(context).also { httpCache = it }
+            }
+        }
+
+        private fun createHttpCache(context: Context): Cache {
+            val dir = File(context.cacheDir, HTTP_CACHE_DIR)
+            dir.mkdirs()
+
+            // 2% of available storage
+            val availableBytes = try {
+                StatFs(dir.absolutePath).availableBytes
+            } catch (e: IllegalArgumentException) {
+                0L
+            }
+            val size = (availableBytes / 50).coerceIn(MIN_HTTP_CACHE_SIZE, MAX_HTTP_CACHE_SIZE)
+            Log.d("UserAgentClientFactory", "http cache size: $size")
+
+            return Cache(dir, size)
+        }
+    }
+
+    // shared by every client we create, so connections opened by one are reused by others
+    private val connectionPool by lazy {
+        ConnectionPool(config.maxIdleConnections, config.keepAliveMinutes, TimeUnit.MINUTES)
+    }
+
+    private val dns by lazy {
+        CachingDns(TimeUnit.SECONDS.toMillis(config.dnsCacheTtlSeconds)).also {
+            clearOnNetworkChange(it)
+        }
+    }
+
+    private val priorityLanes = PriorityLaneInterceptor()
+
+    private val userAgentInterceptor = UserAgentInterceptor()
+
+    private val prefetcher by lazy { NetworkPrefetcher(context) }
+
+    // coalesce identical requests from the main and worker runtimes as well
+    private val requestCoalescing = RequestCoalescingInterceptor()
+
     override fun createNewNetworkModuleClient(): OkHttpClient {
         val dispatcher = Dispatcher().apply {
             if (BuildConfig.DEBUG) {
@@ -22,12 +94,98 @@ class UserAgentClientFactory : OkHttpClientFactory {
 
         Log.d("UserAgentClientFactory", "create")
 
-        return OkHttpClient.Builder()
+        lateinit var client: OkHttpClient
+        val revalidationClient by lazy { newBackgroundClient(client) }
+        client = OkHttpClient.Builder()
             .dispatcher(dispatcher)
+            .connectionPool(connectionPool)
+            .dns(dns)
             .writeTimeout(10, TimeUnit.SECONDS)
             .readTimeout(30, TimeUnit.SECONDS)
             .cookieJar(ReactCookieJarContainer())
-            .addInterceptor(UserAgentInterceptor())
+            .cache(getHttpCache(context))
+            .eventListenerFactory(NetworkMetricsEventListener.Factory)
+            .addInterceptor(priorityLanes)
+            .addInterceptor(prefetcher.recorder)
+            .addInterceptor(userAgentInterceptor)
+            .addInterceptor(requestCoalescing)
+            .addInterceptor(CachePolicyInterceptor { revalidationClient })
+            .addInterceptor(ContentEncodingInterceptor())
+            .addNetworkInterceptor(CachePolicyNetworkInterceptor())
+            .build()
+        return client
+    }
+
+    /**
+     * Addresses resolved on one network may be unreachable or far from another one (e.g. wifi to
+     * cellular, VPN up or down), so cached lookups are dropped when the default network changes.
+     */
+    private fun clearOnNetworkChange(dns: CachingDns) {
+        val connectivityManager = context.getSystemService(ConnectivityManager::class.java) ?: return
+        try {
+            connectivityManager.registerDefaultNetworkCallback(object : ConnectivityManager.NetworkCallback() {
+                override fun onAvailable(network: Network) {
+                    dns.clear()
+                }
+
+                // DNS servers or routes changed on the same network
+                override fun onLinkPropertiesChanged(network: Network, linkProperties: LinkProperties) {
+                    dns.clear()
+                }
+            })
+        } catch (e: RuntimeException) {
+            // lookups are still cached for the TTL only
+            Log.w("UserAgentClientFactory", "failed to watch network changes", e)
+        }
+    }
+
+    /**
+     * Client for background requests started natively, with its own dispatcher so they wait in
+     * its queue instead of taking the slots of JS requests. Shares everything else with [client].
+     */
+    private fun newBackgroundClient(client: OkHttpClient): OkHttpClient {
+        val dispatcher = Dispatcher().apply {
+            maxRequests = BACKGROUND_MAX_REQUESTS
+            maxRequestsPerHost = BACKGROUND_MAX_REQUESTS
+        }
+        return client.newBuilder()
+            .dispatcher(dispatcher)
             .build()
     }
+
+    private val backgroundClient by lazy {
+        newBackgroundClient(OkHttpClientProvider.getOkHttpClient())
+    }
+
+    /**
+     * Resolves and opens connections (TCP + TLS, HTTP/2 negotiation) to [NetworkClientConfig.prewarmHosts]
+     * in background, so first API requests don't pay for the handshakes. Connections land in the
+     * pool shared with the network module client.
+     */
+    fun prewarmConnections(client: OkHttpClient = backgroundClient) {
+        for (host in config.prewarmHosts) {
+            val request = Request.Builder()
+                .url("https://$host/")
+                .head()
+                .header(PriorityLaneInterceptor.HEADER_PRIORITY, "background")
+                .build()
+
+            client.newCall(request).enqueue(object : Callback {
+                override fun onFailure(call: Call, e: IOException) {
+                    Log.d("UserAgentClientFactory", "prewarm $host failed: ${e.message}")
+                }
+
+                override fun onResponse(call: Call, response: Response) {
+                    response.close()
+                }
+            })
+        }
+    }
+
+    /**
+     * Warms the http cache with hot endpoints of the last session, see [NetworkPrefetcher].
+     */
+    fun prefetchHotEndpoints(client: OkHttpClient = backgroundClient) {
+        prefetcher.prefetch(client)
+    }
 }
@@ -13,59 +13,67 @@ import java.util.Locale;
 
 // https://stackoverflow.com/questions/35119761/react-native-okhttp-on-android-set-user-agent/66163168#66163168
 class UserAgentInterceptor : Interceptor {
-  val userAgent: String
-  private var vmString: String? = null
+  companion object {
+    private const val HEADER_USER_AGENT = "User-Agent"
 
-  init {
-    val versionName = BuildConfig.VERSION_NAME
-    val versionCode = BuildConfig.VERSION_CODE
+    // built once per process, shared by every client and interceptor
+    private val sharedUserAgent: String by lazy { buildUserAgent() }
 
-    val osVersion = Build.VERSION.RELEASE
-    val deviceName = Build.MODEL
+    private fun buildUserAgent(): String {
+      val versionName = BuildConfig.VERSION_NAME
+      val versionCode = BuildConfig.VERSION_CODE
 
-    userAgent = String.format(
-      "RabbyMobile/%s okhttp/%s %s (Android %s; %s; %s %s; %s)",
-      versionName, /* versionName */
-      // versionCode, /* versionCode */
-      OkHttp.VERSION,
-      getVmString(),
-      Build.VERSION.RELEASE, /* osVersion */
-      Build.MODEL, /* deviceName */
-      Build.BRAND, /* deviceBrand */
-      Build.DEVICE, /* deviceType */
-      Locale.getDefault().language
-    )
+      val osVersion = Build.VERSION.RELEASE
+      val deviceName = Build.MODEL
 
-    Log.d("UserAgentInterceptor", userAgent)
-  }
+      val userAgent = String.format(
+        "RabbyMobile/%s okhttp/%s %s (Android %s; %s; %s %s; %s)",
+        versionName, /* versionName */
+        // versionCode, /* versionCode */
+        OkHttp.VERSION,
+        getVmString(),
+        Build.VERSION.RELEASE, /* osVersion */
+        Build.MODEL, /* deviceName */
+        Build.BRAND, /* deviceBrand */
+        Build.DEVICE, /* deviceType */
+        Locale.getDefault().language
+      )
 
-  private fun getVmString(): String {
-    if (vmString == null || vmString!!.trim().isEmpty()) {
-      try {
-        vmString = String.format("%s/%s", System.getProperty("java.vm.name"), System.getProperty("java.vm.version"))
+      Log.d("UserAgentInterceptor", userAgent)
+      return userAgent
+    }
+
+    private fun getVmString(): String {
+      return try {
+        String.format("%s/%s", System.getProperty("java.vm.name"), System.getProperty("java.vm.version"))
       } catch (e: Exception) {
         Log.e("UserAgentInterceptor", "Error getting vmString", e)
-        vmString = ""
+        ""
       }
     }
 
-    return vmString!!
+    private fun getIsArtInUse(): Boolean {
+      val vmVersion = System.getProperty("java.vm.version")
+      return vmVersion != null && vmVersion.startsWith("2")
+    }
   }
 
-  private fun getIsArtInUse(): Boolean {
-    val vmVersion = System.getProperty("java.vm.version")
-    return vmVersion != null && vmVersion.startsWith("2")
-  }
+  val userAgent: String
+    get() = sharedUserAgent
 
   @Throws(IOException::class)
   override fun intercept(chain: Interceptor.Chain): Response {
     val originalRequest = chain.request()
 
+    // fast path, nothing to rebuild
+    if (originalRequest.header(HEADER_USER_AGENT) == sharedUserAgent) {
+      return chain.proceed(originalRequest)
+    }
+
     val requestWithUserAgent = originalRequest.newBuilder()
-      .removeHeader("User-Agent")
-      .addHeader("User-Agent", userAgent)
+      .header(HEADER_USER_AGENT, sharedUserAgent)
       .build()
 
     return chain.proceed(requestWithUserAgent)
   }
-}
\ No newline at end of file
+}
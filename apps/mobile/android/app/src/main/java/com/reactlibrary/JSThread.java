@@ -6,6 +6,8 @@ import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.modules.core.DeviceEventManagerModule;
 
+import java.util.ArrayDeque;
+import java.util.Iterator;
 import java.util.Random;
 
 public class JSThread {
@@ -14,7 +16,50 @@ public class JSThread {
     private String jsSlugname;
 
     private ReactApplicationContext hostContext;
-    private ReactApplicationContext reactContext;
+    private volatile ReactApplicationContext reactContext;
+    private ThreadSelfModule threadSelfModule;
+
+    private static final class PendingMessage {
+        final String requestId;
+        final String message;
+
+        PendingMessage(String requestId, String message) {
+            this.requestId = requestId;
+            this.message = message;
+        }
+    }
+
+    // messages not delivered to the worker runtime yet, guarded by itself.
+    // they're delivered one at a time on the worker JS thread, so those queued behind
+    // a long running request can still be cancelled.
+    private final ArrayDeque<PendingMessage> pendingMessages = new ArrayDeque<>();
+    private boolean deliveryScheduled = false;
+    private final Runnable deliverNextMessage = new Runnable() {
+        @Override
+        public void run() {
+            ReactApplicationContext context = reactContext;
+            PendingMessage pending;
+            synchronized (pendingMessages) {
+                pending = pendingMessages.poll();
+                if (pending == null || context == null) {
+                    deliveryScheduled = false;
+                    return;
+                }
+            }
+
+            context.getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
+                    .emit("msgToThread", pending.message);
+
+            synchronized (pendingMessages) {
+                if (pendingMessages.isEmpty()) {
+                    deliveryScheduled = false;
+                    return;
+                }
+            }
+            // queued after the handler of the emitted message
+            context.runOnJSQueueThread(this);
+        }
+    };
 
     public JSThread(ReactApplicationContext hostContext, String jsSlugname) {
         this.hostContext = hostContext;
@@ -37,17 +82,55 @@ public class JSThread {
 
         reactContext = reactContextBuilder.build();
 
-        ThreadSelfModule threadSelfModule = reactContext.getNativeModule(ThreadSelfModule.class);
+        threadSelfModule = reactContext.getNativeModule(ThreadSelfModule.class);
         threadSelfModule.initialize(id, parentContext);
     }
 
     public void postMessage(String message) {
-        if (reactContext == null) {
+        postRequest(null, message);
+    }
+
+    /**
+     * Queues a message for the worker, cancellable with {@link #cancelRequest} by its request id.
+     */
+    public void postRequest(String requestId, String message) {
+        ReactApplicationContext context = reactContext;
+        if (context == null) {
             return;
         }
 
-        reactContext.getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
-                .emit("msgToThread", message);
+        synchronized (pendingMessages) {
+            pendingMessages.add(new PendingMessage(requestId, message));
+            if (deliveryScheduled) {
+                return;
+            }
+            deliveryScheduled = true;
+        }
+        context.runOnJSQueueThread(deliverNextMessage);
+    }
+
+    /**
+     * Drops the request if not delivered yet, otherwise flags it as cancelled for the worker
+     * to abort it cooperatively.
+     *
+     * @return whether the request was dropped before being delivered
+     */
+    public boolean cancelRequest(String requestId) {
+        boolean dropped = false;
+        synchronized (pendingMessages) {
+            Iterator<PendingMessage> iterator = pendingMessages.iterator();
+            while (iterator.hasNext()) {
+                if (requestId.equals(iterator.next().requestId)) {
+                    iterator.remove();
+                    dropped = true;
+                }
+            }
+        }
+
+        if (!dropped && threadSelfModule != null) {
+            threadSelfModule.markRequestCancelled(requestId);
+        }
+        return dropped;
     }
 
     public void onHostResume() {
@@ -75,6 +158,9 @@ public class JSThread {
         params.putInt("tid", id);
         RabbyUtils.rnCtxSendEvent(this.hostContext, "@ThreadStopped", params);
 
+        synchronized (pendingMessages) {
+            pendingMessages.clear();
+        }
         reactContext.onHostPause();
         reactContext.destroy();
         reactContext = null;
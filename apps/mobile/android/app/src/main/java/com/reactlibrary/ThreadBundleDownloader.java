@@ -0,0 +1,162 @@
+package com.reactlibrary;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Headers;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.Okio;
+
+/**
+ * Downloads thread bundles from the dev server without blocking the caller.
+ *
+ * The downloaded file is kept alongside its validators (`<file>.validators`: `ETag` and
+ * `Last-Modified`, Metro only sends the latter), so following requests revalidate with
+ * `If-None-Match`/`If-Modified-Since` and reuse the cached file on `304 Not Modified`.
+ */
+public class ThreadBundleDownloader {
+    private static final String TAG = "ThreadBundleDownloader";
+    private static final String VALIDATORS_SUFFIX = ".validators";
+    private static final String TMP_SUFFIX = ".download";
+    private static final String[][] VALIDATORS = {
+        // response header, request header
+        {"ETag", "If-None-Match"},
+        {"Last-Modified", "If-Modified-Since"},
+    };
+
+    public interface Callback {
+        void onReady(File bundleFile, boolean fromCache);
+
+        void onFailure(Exception e);
+    }
+
+    private final OkHttpClient client;
+
+    /**
+     * Uses its own plain client: the app-wide one has an http cache and interceptors (cache
+     * policies, coalescing...) which could serve a stale bundle instead of revalidating it
+     * against the dev server. The read timeout is lifted as the dev server may bundle slowly.
+     */
+    public ThreadBundleDownloader() {
+        this.client = new OkHttpClient.Builder()
+                .readTimeout(0, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    public void download(String bundleUrl, String bundleOut, final Callback callback) {
+        final File out = new File(bundleOut);
+        final File validatorsFile = new File(bundleOut + VALIDATORS_SUFFIX);
+
+        Request.Builder requestBuilder = new Request.Builder().url(bundleUrl);
+        final Headers cachedValidators = out.exists() ? readValidators(validatorsFile) : Headers.of();
+        for (String[] validator : VALIDATORS) {
+            String value = cachedValidators.get(validator[0]);
+            if (value != null) {
+                requestBuilder.header(validator[1], value);
+            }
+        }
+
+        client.newCall(requestBuilder.build()).enqueue(new okhttp3.Callback() {
+            @Override
+            public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                callback.onFailure(new RuntimeException("Exception downloading thread script to file", e));
+            }
+
+            @Override
+            public void onResponse(@NonNull Call call, @NonNull Response response) {
+                boolean notModified;
+                try (Response res = response) {
+                    notModified = res.code() == 304 && cachedValidators.size() > 0;
+                    if (!notModified) {
+                        if (!res.isSuccessful()) {
+                            callback.onFailure(new RuntimeException("Error downloading thread script - " + res.toString()));
+                            return;
+                        }
+
+                        writeBody(res.body(), out);
+                        writeValidators(validatorsFile, res.headers());
+                    }
+                } catch (IOException e) {
+                    callback.onFailure(new RuntimeException("Exception downloading thread script to file", e));
+                    return;
+                }
+
+                if (notModified) {
+                    Log.d(TAG, "bundle not modified, reuse " + out.getAbsolutePath());
+                }
+                callback.onReady(out, notModified);
+            }
+        });
+    }
+
+    private static void writeBody(ResponseBody body, File out) throws IOException {
+        if (body == null) {
+            throw new IOException("Empty body");
+        }
+
+        // write to a temp file first, a broken download must not replace a valid cached bundle
+        File tmp = new File(out.getAbsolutePath() + TMP_SUFFIX);
+        try (BufferedSink sink = Okio.buffer(Okio.sink(tmp))) {
+            sink.writeAll(body.source());
+        }
+
+        if (!tmp.renameTo(out)) {
+            tmp.delete();
+            throw new IOException("Cannot move downloaded bundle to " + out.getAbsolutePath());
+        }
+    }
+
+    /**
+     * @return validators of the cached bundle, one `name: value` per line, empty if none
+     */
+    private static Headers readValidators(File validatorsFile) {
+        Headers.Builder headers = new Headers.Builder();
+        if (!validatorsFile.exists()) {
+            return headers.build();
+        }
+
+        try (BufferedSource source = Okio.buffer(Okio.source(validatorsFile))) {
+            String line;
+            while ((line = source.readUtf8Line()) != null) {
+                if (!line.trim().isEmpty()) {
+                    headers.add(line);
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            return Headers.of();
+        }
+        return headers.build();
+    }
+
+    private static void writeValidators(File validatorsFile, Headers responseHeaders) {
+        StringBuilder lines = new StringBuilder();
+        for (String[] validator : VALIDATORS) {
+            String value = responseHeaders.get(validator[0]);
+            if (value != null) {
+                lines.append(validator[0]).append(": ").append(value).append('\n');
+            }
+        }
+        if (lines.length() == 0) {
+            validatorsFile.delete();
+            return;
+        }
+
+        try (BufferedSink sink = Okio.buffer(Okio.sink(validatorsFile))) {
+            sink.writeUtf8(lines.toString());
+        } catch (IOException e) {
+            Log.w(TAG, "Cannot persist bundle validators", e);
+            validatorsFile.delete();
+        }
+    }
+}
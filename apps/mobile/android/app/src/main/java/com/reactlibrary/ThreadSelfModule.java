@@ -1,7 +1,8 @@
 package com.reactlibrary;
 
 import com.debank.rabbymobile.BuildConfig;
-import com.debank.rabbymobile.RabbyUtils;
+import com.debank.rabbymobile.PausableEventGate;
+import com.debank.rabbymobile.TrustedClock;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
@@ -11,10 +12,47 @@ import com.facebook.react.modules.core.DeviceEventManagerModule;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.bridge.Arguments;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
 @ReactModule(name = ThreadSelfModule.REACT_MODULE_NAME)
 public class ThreadSelfModule extends ReactContextBaseJavaModule {
     public static final String REACT_MODULE_NAME = "ThreadSelfModule";
 
+    // ids of requests cancelled by the host while the worker handles them, oldest evicted first
+    private static final int MAX_CANCELLED_REQUESTS = 64;
+    private final Set<String> cancelledRequests = Collections.newSetFromMap(
+        new LinkedHashMap<String, Boolean>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > MAX_CANCELLED_REQUESTS;
+            }
+        });
+
+    // chunks received ahead of a missing one, by request id, only touched on the native modules thread
+    private static final int MAX_OPEN_STREAMS = 32;
+    // streams are removed once their last chunk is sent, evicted ones can't be completed anymore
+    private static final String ERROR_STREAM_EVICTED = "StreamEvicted";
+    private final Map<String, ChunkStream> openStreams = new LinkedHashMap<String, ChunkStream>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ChunkStream> eldest) {
+            if (size() <= MAX_OPEN_STREAMS) {
+                return false;
+            }
+            failStream(eldest.getKey(), ERROR_STREAM_EVICTED);
+            return true;
+        }
+    };
+
+    private static final class ChunkStream {
+        int nextSeq = 0;
+        final TreeMap<Integer, String> pendingChunks = new TreeMap<>();
+        int doneSeq = -1;
+    }
+
     private int threadId;
     private ReactApplicationContext context;
     private ReactApplicationContext parentContext;
@@ -42,10 +80,110 @@ public class ThreadSelfModule extends ReactContextBaseJavaModule {
       params.putInt("tid", threadId);
       params.putString("message", data);
 
+      // held while the host is paused, delivered on resume
+      PausableEventGate gate = PausableEventGate.forContext(parentContext);
       if (BuildConfig.DEBUG) {
-        RabbyUtils.rnCtxSendEvent(parentContext, "DevThreadMessage", params.copy());
+        gate.send("DevThreadMessage", params.copy());
       }
 
-      RabbyUtils.rnCtxSendEvent(parentContext, "msgFromThread", params);
+      gate.send("msgFromThread", params);
+    }
+
+    /**
+     * Streams a partial result of a request, forwarded to the host in `seq` order as
+     * `msgChunkFromThread` events as soon as all previous chunks were, so it can render progressively.
+     * If more than {@link #MAX_OPEN_STREAMS} streams are open at once, the oldest one is
+     * ended by an event with an `error` instead.
+     *
+     * @param seq 0-based index of the chunk in the stream
+     * @param done whether it's the last chunk of the stream
+     */
+    @ReactMethod
+    public void postChunk(String reqid, int seq, String chunk, boolean done) {
+        if (parentContext == null) { return; }
+        if (isRequestCancelled(reqid)) {
+            // the host doesn't wait for it anymore
+            openStreams.remove(reqid);
+            return;
+        }
+
+        ChunkStream stream = openStreams.get(reqid);
+        if (stream == null) {
+            stream = new ChunkStream();
+            openStreams.put(reqid, stream);
+        }
+        if (done) {
+            stream.doneSeq = seq;
+        }
+        if (seq != stream.nextSeq) {
+            // ahead of a missing chunk, wait for it
+            stream.pendingChunks.put(seq, chunk);
+            return;
+        }
+
+        String next = chunk;
+        while (next != null) {
+            boolean last = stream.nextSeq == stream.doneSeq;
+            sendChunk(reqid, stream.nextSeq, next, last);
+            if (last) {
+                openStreams.remove(reqid);
+                return;
+            }
+            stream.nextSeq++;
+            next = stream.pendingChunks.remove(stream.nextSeq);
+        }
+    }
+
+    private void sendChunk(String reqid, int seq, String chunk, boolean done) {
+        WritableMap params = Arguments.createMap();
+        params.putInt("tid", threadId);
+        params.putString("reqid", reqid);
+        params.putInt("seq", seq);
+        params.putString("chunk", chunk);
+        params.putBoolean("done", done);
+
+        PausableEventGate.forContext(parentContext).send("msgChunkFromThread", params);
+    }
+
+    /**
+     * Ends the stream of a request with an error, its later chunks are dropped and the worker
+     * sees it as cancelled.
+     */
+    private void failStream(String reqid, String error) {
+        markRequestCancelled(reqid);
+
+        WritableMap params = Arguments.createMap();
+        params.putInt("tid", threadId);
+        params.putString("reqid", reqid);
+        params.putInt("seq", -1);
+        params.putNull("chunk");
+        params.putBoolean("done", true);
+        params.putString("error", error);
+
+        PausableEventGate.forContext(parentContext).send("msgChunkFromThread", params);
+    }
+
+    /**
+     * Same clock as `RNTimeChanged.getTrustedTime` of the host, shared in process.
+     */
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public double getTrustedTime() {
+        return TrustedClock.nowMs();
+    }
+
+    void markRequestCancelled(String requestId) {
+        synchronized (cancelledRequests) {
+            cancelledRequests.add(requestId);
+        }
+    }
+
+    /**
+     * Lets long running handlers abort requests the host no longer waits for.
+     */
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public boolean isRequestCancelled(String requestId) {
+        synchronized (cancelledRequests) {
+            return cancelledRequests.contains(requestId);
+        }
     }
 }
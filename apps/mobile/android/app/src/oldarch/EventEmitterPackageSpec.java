@@ -6,13 +6,18 @@ import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
 
-abstract class EventEmitterPackageSpec extends ReactContextBaseJavaModule {
+import java.util.HashMap;
+import java.util.Map;
+
+abstract class EventEmitterPackageSpec extends ReactContextBaseJavaModule implements ListenerAwareEmitter {
   EventEmitterPackageSpec(ReactApplicationContext context) {
     super(context);
   }
   // private static final List<EventDispatcherListener> mListeners = new CopyOnWriteArrayList<>();
 
   private int listenerCount = 0;
+  // listeners by event name, guarded by `this`
+  private final Map<String, Integer> listenerCountByEvent = new HashMap<>();
   /**
    * @notice addListener/removeListeners is required for RN built in Event Emitter Calls.
    * You may subscribe it in javascript like:
@@ -32,10 +37,12 @@ abstract class EventEmitterPackageSpec extends ReactContextBaseJavaModule {
    * @why Keep: Required for RN built in Event Emitter Calls.
    */
   @ReactMethod
-  public void addListener(String eventName) {
+  public synchronized void addListener(String eventName) {
     if (listenerCount == 0) {}
 
     listenerCount += 1;
+    Integer count = listenerCountByEvent.get(eventName);
+    listenerCountByEvent.put(eventName, count == null ? 1 : count + 1);
   }
 
   /**
@@ -43,10 +50,20 @@ abstract class EventEmitterPackageSpec extends ReactContextBaseJavaModule {
    * @why Keep: Required for RN built in Event Emitter Calls.
    */
   @ReactMethod
-  public void removeListeners(Integer count) {
-    listenerCount -= count;
+  public synchronized void removeListeners(Integer count) {
+    listenerCount = Math.max(0, listenerCount - count);
     if (listenerCount == 0) {
       // Remove upstream listeners, stop unnecessary background tasks
+      listenerCountByEvent.clear();
     }
   }
+
+  /**
+   * RN doesn't tell which events `removeListeners` is called for, so an event is considered
+   * listened to from its first `addListener` until all listeners of the module are removed.
+   */
+  @Override
+  public synchronized boolean hasListeners(String eventName) {
+    return listenerCount > 0 && listenerCountByEvent.containsKey(eventName);
+  }
 }
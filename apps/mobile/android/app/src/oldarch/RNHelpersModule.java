@@ -11,6 +11,7 @@ import android.content.IntentFilter;
 import com.facebook.react.ReactApplication;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.ReactMethod;
@@ -38,4 +39,15 @@ public class RNHelpersModule extends EventEmitterPackageSpec /* implements Lifec
   public void forceExitApp() {
     android.os.Process.killProcess(android.os.Process.myPid());
   }
+
+  /**
+   * @description counters of events sent from native modules to JS since app start
+   */
+  @ReactMethod
+  public void getEventStats(Promise promise) {
+    WritableMap stats = Arguments.createMap();
+    stats.putDouble("emitted", RabbyUtils.getEmittedEventCount());
+    stats.putDouble("coalesced", RabbyUtils.getCoalescedEventCount());
+    promise.resolve(stats);
+  }
 }
@@ -0,0 +1,65 @@
+package com.debank.rabbymobile;
+
+import androidx.annotation.NonNull;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+public class RNNetworkMetricsModule extends SimplePackageSpec {
+  public static final String NAME = "RNNetworkMetrics";
+
+  RNNetworkMetricsModule(ReactApplicationContext context) {
+    super(context);
+  }
+
+  @Override
+  @NonNull
+  public String getName() {
+    return NAME;
+  }
+
+  /**
+   * @description resolves metrics of requests made by the native network client,
+   * grouped by host + path template, since app start or last `reset`
+   */
+  @ReactMethod
+  public void getSnapshot(Promise promise) {
+    WritableArray endpoints = Arguments.createArray();
+    for (EndpointMetrics.Snapshot snapshot : NetworkMetrics.snapshot()) {
+      WritableMap endpoint = Arguments.createMap();
+      endpoint.putString("endpoint", snapshot.getKey());
+      endpoint.putDouble("failures", snapshot.getFailures());
+      endpoint.putDouble("bytesSent", snapshot.getBytesSent());
+      endpoint.putDouble("bytesReceived", snapshot.getBytesReceived());
+      endpoint.putMap("dns", histogramToMap(snapshot.getDns()));
+      endpoint.putMap("connect", histogramToMap(snapshot.getConnect()));
+      endpoint.putMap("tls", histogramToMap(snapshot.getTls()));
+      endpoint.putMap("ttfb", histogramToMap(snapshot.getTtfb()));
+      endpoint.putMap("body", histogramToMap(snapshot.getBody()));
+      endpoint.putMap("total", histogramToMap(snapshot.getTotal()));
+      endpoints.pushMap(endpoint);
+    }
+
+    promise.resolve(endpoints);
+  }
+
+  @ReactMethod
+  public void reset() {
+    NetworkMetrics.reset();
+  }
+
+  private static WritableMap histogramToMap(LatencyHistogram.Snapshot histogram) {
+    WritableMap map = Arguments.createMap();
+    map.putDouble("count", histogram.getCount());
+    map.putDouble("sumMs", histogram.getSumMs());
+    map.putDouble("maxMs", histogram.getMaxMs());
+    map.putDouble("p50Ms", histogram.getP50Ms());
+    map.putDouble("p90Ms", histogram.getP90Ms());
+    map.putDouble("p99Ms", histogram.getP99Ms());
+    return map;
+  }
+}
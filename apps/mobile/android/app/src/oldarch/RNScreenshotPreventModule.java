@@ -10,6 +10,7 @@ import android.util.Log;
 import android.os.Build;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
 import android.content.Intent;
 import android.net.Uri;
 import android.view.View;
@@ -23,6 +24,7 @@ import android.Manifest;
 import android.content.pm.PackageManager;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.facebook.react.bridge.BaseActivityEventListener;
 import com.facebook.react.bridge.Promise;
@@ -30,15 +32,23 @@ import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.LifecycleEventListener;
 import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.uimanager.events.EventDispatcherListener;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.lang.ref.WeakReference;
 
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import androidx.annotation.RequiresApi;
 import androidx.core.content.ContextCompat;
@@ -52,9 +62,40 @@ public class RNScreenshotPreventModule extends EventEmitterPackageSpec /* implem
 
   /* Callback for Android 14+, using Object to avoid compilation errors */
   private Activity.ScreenCaptureCallback screenCaptureCallback;
+  // activity screenCaptureCallback is registered on, to unregister it without current activity
+  private WeakReference<Activity> screenCaptureActivity = new WeakReference<>(null);
   private final Handler mainHandler = new Handler(Looper.getMainLooper());
+  // encodes captured screenshots off the main thread, one at a time
+  private final ExecutorService encodeExecutor = Executors.newSingleThreadExecutor();
+  private static final String CAPTURE_DIR = "screenshots";
+  private static final int MAX_CAPTURE_FILES = 5;
+  private static final long CAPTURE_FILE_MAX_AGE_MS = 60 * 60 * 1000L;
+  private volatile ScreenshotUtils.EncodeOptions captureOptions = ScreenshotUtils.EncodeOptions.DEFAULT;
+  // ids of capture windows a screenshot was taken in, only touched on the main thread
   private final java.util.Set<Long> recentScreenshotIds = new java.util.HashSet<>();
   private static final long DEBOUNCE_TIMEOUT_MS = 10000L;
+  // captures within the same window are coalesced into one event
+  private static final long CAPTURE_WINDOW_MS = 1000L;
+  // at most this many captures are rendered and encoded per DEBOUNCE_TIMEOUT_MS
+  private static final int MAX_CAPTURES_PER_DEBOUNCE = 3;
+  private final AtomicBoolean captureInFlight = new AtomicBoolean(false);
+  private final AtomicInteger suppressedCaptures = new AtomicInteger(0);
+  private final Runnable notifySuppressedCaptures = new Runnable() {
+    @Override
+    public void run() {
+      if (captureInFlight.get()) {
+        // the pending event will carry them
+        return;
+      }
+      int coalescedCount = suppressedCaptures.getAndSet(0);
+      if (coalescedCount > 0) {
+        WritableMap params = Arguments.createMap();
+        params.putBoolean("captured", false);
+        params.putInt("coalescedCount", coalescedCount);
+        RabbyUtils.rnCtxSendEvent(reactContext, RNScreenshotPreventModule.this, "userDidTakeScreenshot", params);
+      }
+    }
+  };
 
   // For DETECT_SCREEN_CAPTURE permission
   private boolean hasDetectScreenCapturePermission = false;
@@ -70,6 +111,7 @@ public class RNScreenshotPreventModule extends EventEmitterPackageSpec /* implem
     }
 
     // reactContext.addLifecycleEventListener(this);
+    SecureWindowManager.attach(reactContext);
   }
 
   @Override
@@ -78,6 +120,18 @@ public class RNScreenshotPreventModule extends EventEmitterPackageSpec /* implem
     return NAME;
   }
 
+  @Override
+  public void onCatalystInstanceDestroy() {
+    super.onCatalystInstanceDestroy();
+    // the activity outlives this module on reload, its callback must not reach the shut down executor
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.UPSIDE_DOWN_CAKE) {
+      unregisterScreenCaptureCallback();
+    }
+    mainHandler.removeCallbacks(notifySuppressedCaptures);
+    encodeExecutor.shutdown();
+    ScreenshotUtils.trimMemory();
+  }
+
   private static ViewGroup activityGetRootView(Activity activity) {
     ViewGroup rootView = (ViewGroup) activity.getWindow().getDecorView().getRootView();
     return rootView;
@@ -88,14 +142,6 @@ public class RNScreenshotPreventModule extends EventEmitterPackageSpec /* implem
     return (flags & WindowManager.LayoutParams.FLAG_SECURE) != 0;
   }
 
-  private static void activitySetSecure(Activity activity) {
-    activity.getWindow().setFlags(WindowManager.LayoutParams.FLAG_SECURE, WindowManager.LayoutParams.FLAG_SECURE);
-  }
-
-  private static void activityCancelSecure(Activity activity) {
-    activity.getWindow().clearFlags(WindowManager.LayoutParams.FLAG_SECURE);
-  }
-
   @ReactMethod
   public void startScreenCaptureDetection(Promise promise) {
     Activity currentActivity = getCurrentActivity();
@@ -124,7 +170,7 @@ public class RNScreenshotPreventModule extends EventEmitterPackageSpec /* implem
     // Send event indicating screen capture detection has started
     WritableMap params = Arguments.createMap();
     params.putBoolean("enabled", true);
-    RabbyUtils.rnCtxSendEvent(reactContext, "screenCaptureDetectionChanged", params);
+    RabbyUtils.rnCtxSendEvent(reactContext, this, "screenCaptureDetectionChanged", params);
 
     try {
         screenCaptureCallback = new Activity.ScreenCaptureCallback() {
@@ -137,6 +183,7 @@ public class RNScreenshotPreventModule extends EventEmitterPackageSpec /* implem
 
         // Register callback
         currentActivity.registerScreenCaptureCallback(mainHandler::post, screenCaptureCallback);
+        screenCaptureActivity = new WeakReference<>(currentActivity);
         Log.d(TAG, "Registered ScreenCaptureCallback (Android 14+)");
 
         promise.resolve(null);
@@ -149,22 +196,149 @@ public class RNScreenshotPreventModule extends EventEmitterPackageSpec /* implem
     }
   }
 
+  /**
+   * Whether a capture should be taken now, otherwise it's counted as suppressed and reported
+   * as `coalescedCount` of the next event. Runs on the main looper.
+   */
+  private boolean acquireCaptureSlot() {
+    long windowId = SystemClock.elapsedRealtime() / CAPTURE_WINDOW_MS;
+    long oldestWindowId = windowId - DEBOUNCE_TIMEOUT_MS / CAPTURE_WINDOW_MS;
+    java.util.Iterator<Long> iterator = recentScreenshotIds.iterator();
+    while (iterator.hasNext()) {
+      if (iterator.next() <= oldestWindowId) {
+        iterator.remove();
+      }
+    }
+
+    boolean allowed = !recentScreenshotIds.contains(windowId)
+      && recentScreenshotIds.size() < MAX_CAPTURES_PER_DEBOUNCE
+      && captureInFlight.compareAndSet(false, true);
+    if (allowed) {
+      recentScreenshotIds.add(windowId);
+      return true;
+    }
+
+    suppressedCaptures.incrementAndGet();
+    mainHandler.removeCallbacks(notifySuppressedCaptures);
+    mainHandler.postDelayed(notifySuppressedCaptures, CAPTURE_WINDOW_MS);
+    return false;
+  }
+
+  /**
+   * Runs on the main looper: only the capture happens here, PNG compression and Base64 encoding
+   * are done on {@link #encodeExecutor}, which emits the event once ready.
+   * Bursts of captures (e.g. screen recording) are rate limited by {@link #acquireCaptureSlot},
+   * nothing is captured without JS listener.
+   */
   private void takeViewScreenshotAndNotify() {
-    ContentResolver contentResolver = this.reactContext.getContentResolver();
-    WritableMap params = Arguments.createMap();
-    params.putBoolean("captured", false);
+    if (!hasListeners("userDidTakeScreenshot") || encodeExecutor.isShutdown()) {
+      // nobody would receive it, skip the capture and encoding altogether
+      return;
+    }
+
+    if (!acquireCaptureSlot()) {
+      Log.d(TAG, "Screen capture coalesced");
+      return;
+    }
 
     Activity activity = getCurrentActivity();
-    if (activity != null) {
-        ViewGroup contentContainer = activity.findViewById(android.R.id.content);
-        String base64 = ScreenshotUtils.captureViewToPngBase64(contentContainer.getRootView());
+    if (activity == null) {
+      encodeAndNotify(null);
+      return;
+    }
+
+    ScreenshotUtils.captureWindowAsync(activity, new ScreenshotUtils.CaptureCallback() {
+      @Override
+      public void onCaptured(Bitmap bitmap) {
+        encodeAndNotify(bitmap);
+      }
+    });
+  }
 
-        params.putBoolean("captured", true);
-        params.putString("imageBase64", base64);
-        params.putString("imageType", "png");
+  private void encodeAndNotify(final Bitmap bitmap) {
+    boolean queued = executeOnEncodeExecutor(new Runnable() {
+      @Override
+      public void run() {
+        WritableMap params = Arguments.createMap();
+        params.putBoolean("captured", false);
+
+        try {
+          if (bitmap != null) {
+            ScreenshotUtils.EncodeOptions options = captureOptions;
+            Bitmap scaled = ScreenshotUtils.downscale(bitmap, options.maxWidth, options.maxHeight);
+            if (scaled != bitmap) {
+              ScreenshotUtils.releaseBitmap(bitmap);
+            }
+            int width = scaled.getWidth();
+            int height = scaled.getHeight();
+
+            if (options.output == ScreenshotUtils.EncodeOptions.Output.FILE) {
+              File captureDir = new File(reactContext.getCacheDir(), CAPTURE_DIR);
+              ScreenshotUtils.evictCaptureFiles(captureDir, MAX_CAPTURE_FILES - 1, CAPTURE_FILE_MAX_AGE_MS);
+              File file = ScreenshotUtils.encodeToFile(scaled, options, captureDir);
+              if (file != null) {
+                params.putBoolean("captured", true);
+                params.putString("path", file.getAbsolutePath());
+                params.putString("uri", Uri.fromFile(file).toString());
+                params.putDouble("byteSize", file.length());
+              }
+            } else {
+              String base64 = ScreenshotUtils.encodeToBase64(scaled, options);
+              params.putBoolean("captured", true);
+              params.putString("imageBase64", base64);
+            }
+            params.putString("imageType", options.imageType());
+            params.putInt("width", width);
+            params.putInt("height", height);
+          }
+        } catch (RuntimeException e) {
+          // still notify, as a failed capture
+          Log.e(TAG, "Failed to encode screenshot", e);
+          params.putBoolean("captured", false);
+        } finally {
+          // a failed encoding must not block later captures
+          captureInFlight.set(false);
+          int coalescedCount = suppressedCaptures.getAndSet(0);
+          if (coalescedCount > 0) {
+            params.putInt("coalescedCount", coalescedCount);
+          }
+          RabbyUtils.rnCtxSendEvent(reactContext, RNScreenshotPreventModule.this, "userDidTakeScreenshot", params);
+        }
+      }
+    });
+    if (!queued) {
+      // module destroyed while capturing
+      if (bitmap != null) {
+        ScreenshotUtils.releaseBitmap(bitmap);
+      }
+      captureInFlight.set(false);
     }
+  }
 
-    RabbyUtils.rnCtxSendEvent(this.reactContext, "userDidTakeScreenshot", params);
+  /**
+   * @return false if the module is destroyed and the task dropped
+   */
+  private boolean executeOnEncodeExecutor(Runnable task) {
+    if (encodeExecutor.isShutdown()) {
+      return false;
+    }
+    try {
+      encodeExecutor.execute(task);
+      return true;
+    } catch (RejectedExecutionException e) {
+      // shut down in between
+      return false;
+    }
+  }
+
+  /**
+   * @description options of images carried by `userDidTakeScreenshot`, missing keys are reset to defaults:
+   * `maxWidth`/`maxHeight` (0 for no limit), `format` (png, webp, jpeg), `quality` (0-100) and
+   * `output` (base64, or file to get only `path`, `uri` and `byteSize` of a file in cache dir)
+   */
+  @ReactMethod
+  public void setScreenshotCaptureOptions(@Nullable ReadableMap options) {
+    captureOptions = ScreenshotUtils.EncodeOptions.fromMap(options);
   }
 
   @ReactMethod
@@ -186,17 +360,34 @@ public class RNScreenshotPreventModule extends EventEmitterPackageSpec /* implem
       return;
     }
 
-    try {
-        currentActivity.unregisterScreenCaptureCallback(screenCaptureCallback);
+    unregisterScreenCaptureCallback();
 
-        WritableMap params = Arguments.createMap();
-        params.putBoolean("false", true);
-        RabbyUtils.rnCtxSendEvent(reactContext, "screenCaptureDetectionChanged", params);
+    WritableMap params = Arguments.createMap();
+    params.putBoolean("false", true);
+    RabbyUtils.rnCtxSendEvent(reactContext, this, "screenCaptureDetectionChanged", params);
+
+    // no more capture expected, don't hold pooled bitmaps
+    executeOnEncodeExecutor(new Runnable() {
+      @Override
+      public void run() {
+        ScreenshotUtils.trimMemory();
+      }
+    });
+    promise.resolve(null);
+  }
+
+  @RequiresApi(api = Build.VERSION_CODES.UPSIDE_DOWN_CAKE)
+  private void unregisterScreenCaptureCallback() {
+    Activity activity = screenCaptureActivity.get();
+    if (activity != null && screenCaptureCallback != null) {
+      try {
+        activity.unregisterScreenCaptureCallback(screenCaptureCallback);
       } catch (Exception e) {
-          Log.i(TAG, "Failed to unregister ScreenCaptureCallback (Reflection)", e);
+        Log.i(TAG, "Failed to unregister ScreenCaptureCallback (Reflection)", e);
       }
-      screenCaptureCallback = null;
-      promise.resolve(null);
+    }
+    screenCaptureActivity = new WeakReference<>(null);
+    screenCaptureCallback = null;
   }
 
   @ReactMethod
@@ -205,29 +396,15 @@ public class RNScreenshotPreventModule extends EventEmitterPackageSpec /* implem
     params.putBoolean("isPrevent", isPrevent);
     params.putBoolean("success", false);
 
-    if (this.reactContext.hasCurrentActivity()) {
-      final Activity activity = this.reactContext.getCurrentActivity();
-      if (activity != null) {
-        if (isPrevent) {
-          activity.runOnUiThread(new Runnable() {
-            @Override
-            public void run() {
-              activitySetSecure(activity);
-            }
-          });
-        } else {
-          activity.runOnUiThread(new Runnable() {
-            @Override
-            public void run() {
-              activityCancelSecure(activity);
-            }
-          });
-        }
-        params.putBoolean("success", true);
-      }
+    // recorded even without an activity, applied when the host resumes
+    final Activity activity = this.reactContext.getCurrentActivity();
+    SecureWindowManager.requestSecure(activity, NAME, isPrevent);
+    if (activity != null) {
+      params.putBoolean("success", true);
     }
 
-    RabbyUtils.rnCtxSendEvent(reactContext, "preventScreenshotChanged", params);
+    // toggled on each navigation, only the final state matters
+    RabbyUtils.rnCtxSendEventCoalesced(reactContext, this, "preventScreenshotChanged", params);
   }
 
   @ReactMethod
@@ -20,27 +20,24 @@ import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.devsupport.interfaces.DevSupportManager;
 
+
 import java.io.File;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
-
-import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.Response;
-import okio.Okio;
-import okio.Sink;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.reactlibrary.ReactContextBuilder;
 import com.reactlibrary.JSThread;
 import com.reactlibrary.ThreadBaseReactPackage;
+import com.reactlibrary.ThreadBundleDownloader;
 
 import javax.annotation.Nullable;
 
 public class RNThreadModule extends EventEmitterPackageSpec implements LifecycleEventListener {
   public static final String NAME = "RNThread";
-  private HashMap<Integer, JSThread> threads;
+  // threads may be registered from the bundle download callback thread
+  private Map<Integer, JSThread> threads;
 
   private ReactApplicationContext reactContext;
 
@@ -48,10 +45,12 @@ public class RNThreadModule extends EventEmitterPackageSpec implements Lifecycle
 
   private ReactPackage additionalThreadPackages[];
 
+  private ThreadBundleDownloader bundleDownloader;
+
   public RNThreadModule(final ReactApplicationContext reactContext, ReactPackage additionalThreadPackages[]) {
     super(reactContext);
     this.reactContext = reactContext;
-    threads = new HashMap<>();
+    threads = new ConcurrentHashMap<>();
 
     ReactApplication rnApp = (ReactApplication) reactContext.getApplicationContext();
     this.reactNativeHost = rnApp.getReactNativeHost();
@@ -73,21 +72,42 @@ public class RNThreadModule extends EventEmitterPackageSpec implements Lifecycle
   ) {
     Log.d(NAME, "Starting web thread - " + jsFileName);
 
-    ReadableMap options = opts == null ? Arguments.createMap() : opts;
-    OptionValue opt_usePackedResource = RabbyUtils.parseOptionDict(options, "usePackedResource");
+    ThreadStartOptions options = ThreadStartOptions.fromMap(opts);
 
     // When we create the absolute file path later, a "./" will break it.
     // Remove the leading "./" if it exists.
     String jsFileSlug = jsFileName.contains("./") ? jsFileName.replace("./", "") : jsFileName;
 
-    boolean usePackedResource = opt_usePackedResource.jstype == OptionValue.JSType.BOOLEAN ? opt_usePackedResource.boolVal.booleanValue() : false;
+    if (getDevSupportManager().getDevSupportEnabled() && !options.usePackedResource) {
+      final String bundleUrl = bundleUrlForFile(jsFileName);
+      downloadDevBundleAsync(bundleUrl, jsFileSlug, new ThreadBundleDownloader.Callback() {
+        @Override
+        public void onReady(File bundleFile, boolean fromCache) {
+          Log.d(NAME, "createDevBundleLoader - bundle ready at " + bundleFile.getAbsolutePath() + (fromCache ? " (not modified)" : ""));
+          launchThread(
+            JSBundleLoader.createCachedBundleFromNetworkLoader(bundleUrl, bundleFile.getAbsolutePath()),
+            jsFileSlug,
+            promise
+          );
+        }
+
+        @Override
+        public void onFailure(Exception e) {
+          promise.reject(e);
+          getDevSupportManager().handleException(e);
+        }
+      });
+      return;
+    }
 
-    DevSupportManager dsm = getDevSupportManager();
-    Boolean devSupportedEnabled = getDevSupportManager().getDevSupportEnabled();
     JSBundleLoader bundleLoader = getDevSupportManager().getDevSupportEnabled()
-            ? usePackedResource ? createDevPackedBundleLoader(jsFileName, jsFileSlug) : createDevBundleLoader(jsFileName, jsFileSlug)
+            ? createDevPackedBundleLoader(jsFileName, jsFileSlug)
             : createReleaseBundleLoader(jsFileName, jsFileSlug);
 
+    launchThread(bundleLoader, jsFileSlug, promise);
+  }
+
+  private void launchThread(JSBundleLoader bundleLoader, String jsFileSlug, Promise promise) {
     try {
       ReactApplicationContext hostContext = getReactApplicationContext();
       ArrayList<ReactPackage> threadPackages = new ArrayList<ReactPackage>(Arrays.asList(additionalThreadPackages));
@@ -95,7 +115,7 @@ public class RNThreadModule extends EventEmitterPackageSpec implements Lifecycle
 
       ReactContextBuilder threadContextBuilder = new ReactContextBuilder((Context) hostContext)
               .setJSBundleLoader(bundleLoader)
-              .setDevSupportManager(dsm)
+              .setDevSupportManager(getDevSupportManager())
               .setReactInstanceManager(getReactInstanceManager())
               .setReactPackages(threadPackages);
 
@@ -141,8 +161,40 @@ public class RNThreadModule extends EventEmitterPackageSpec implements Lifecycle
     thread.postMessage(message);
   }
 
+  /**
+   * @description like `postThreadMessage`, but cancellable with `cancelThreadRequest` by `requestId`
+   */
+  @ReactMethod
+  public void postThreadRequest(int threadId, String requestId, String message) {
+    JSThread thread = threads.get(threadId);
+    if (thread == null) {
+      Log.d(NAME, "Cannot post request to thread - thread is null for id " + threadId);
+      return;
+    }
+
+    thread.postRequest(requestId, message);
+  }
+
+  /**
+   * @description drops the request if the worker hasn't received it yet, otherwise the worker
+   * sees it as cancelled through `ThreadSelfModule.isRequestCancelled`.
+   * Resolves whether it was dropped before delivery.
+   */
+  @ReactMethod
+  public void cancelThreadRequest(int threadId, String requestId, Promise promise) {
+    JSThread thread = threads.get(threadId);
+    if (thread == null) {
+      promise.resolve(false);
+      return;
+    }
+
+    promise.resolve(thread.cancelRequest(requestId));
+  }
+
   @Override
   public void onHostResume() {
+    PausableEventGate.forContext(reactContext).resume();
+
     new Handler(Looper.getMainLooper()).post(new Runnable() {
       @Override
       public void run() {
@@ -155,6 +207,8 @@ public class RNThreadModule extends EventEmitterPackageSpec implements Lifecycle
 
   @Override
   public void onHostPause() {
+    PausableEventGate.forContext(reactContext).pause();
+
     new Handler(Looper.getMainLooper()).post(new Runnable() {
       @Override
       public void run() {
@@ -189,8 +243,7 @@ public class RNThreadModule extends EventEmitterPackageSpec implements Lifecycle
      *  Helper methods
      */
 
-  private JSBundleLoader createDevBundleLoader(String jsFileName, String jsFileSlug) {
-    String bundleUrl = bundleUrlForFile(jsFileName);
+  private void downloadDevBundleAsync(String bundleUrl, String jsFileSlug, ThreadBundleDownloader.Callback callback) {
     // nested file directory will not exist in the files dir during development,
     // so remove any leading directory paths to simply download a flat file into
     // the root of the files directory.
@@ -198,9 +251,7 @@ public class RNThreadModule extends EventEmitterPackageSpec implements Lifecycle
     String bundleOut = getReactApplicationContext().getFilesDir().getAbsolutePath() + "/" + splitFileSlug[splitFileSlug.length - 1];
 
     Log.d(NAME, "createDevBundleLoader - download web thread to - " + bundleOut);
-    downloadScriptToFileSync(bundleUrl, bundleOut);
-
-    return JSBundleLoader.createCachedBundleFromNetworkLoader(bundleUrl, bundleOut);
+    getBundleDownloader().download(bundleUrl, bundleOut, callback);
   }
 
   private JSBundleLoader createDevPackedBundleLoader(String jsFileName, String jsFileSlug) {
@@ -243,24 +294,10 @@ public class RNThreadModule extends EventEmitterPackageSpec implements Lifecycle
             + ".bundle?platform=android&dev=true&hot=false&minify=false";
   }
 
-  private void downloadScriptToFileSync(String bundleUrl, String bundleOut) {
-    OkHttpClient client = new OkHttpClient();
-    final File out = new File(bundleOut);
-
-    Request request = new Request.Builder()
-            .url(bundleUrl)
-            .build();
-
-    try {
-      Response response = client.newCall(request).execute();
-      if (!response.isSuccessful()) {
-        throw new RuntimeException("Error downloading thread script - " + response.toString());
-      }
-
-      Sink output = Okio.sink(out);
-      Okio.buffer(response.body().source()).readAll(output);
-    } catch (IOException e) {
-      throw new RuntimeException("Exception downloading thread script to file", e);
+  private ThreadBundleDownloader getBundleDownloader() {
+    if (bundleDownloader == null) {
+      bundleDownloader = new ThreadBundleDownloader();
     }
+    return bundleDownloader;
   }
 }
@@ -7,8 +7,11 @@ import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.Nullable;
 
-import com.facebook.react.ReactApplication;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.ReactApplicationContext;
@@ -34,54 +37,137 @@ public class RNTimeChangedModule extends EventEmitterPackageSpec implements Life
     return NAME;
   }
 
-  private class TimeChangeBroadcastReceiver extends BroadcastReceiver {
+  // time and timezone broadcasts come in bursts (e.g. automatic time sync), only the last one is sent
+  private static final long COALESCE_WINDOW_MS = 500L;
+  private final Handler mainHandler = new Handler(Looper.getMainLooper());
+  private final TimeChangeBroadcastReceiver timeChangeReceiver = new TimeChangeBroadcastReceiver();
+  // below only touched on the main thread
+  private boolean receiverRegistered = false;
+  private @Nullable String pendingAction = null;
+  private final Runnable notifyTimeChanged = new Runnable() {
     @Override
-    public void onReceive(Context context, Intent intent) {
+    public void run() {
+      String action = pendingAction;
+      pendingAction = null;
+      if (action == null || !hasListeners("onTimeChanged")) {
+        return;
+      }
+
       WritableMap params = Arguments.createMap();
-      String action = intent.getAction();
       params.putString("androidAction", action);
 
-      ReactApplication rnApp = (ReactApplication) context.getApplicationContext();
-      ReactContext reactContext = rnApp.getReactNativeHost().getReactInstanceManager()
-                                .getCurrentReactContext();
-
+      // only the latest change matters if the app is in background
       if (Intent.ACTION_TIME_CHANGED.equals(action)) {
         params.putString("reason", "timeSet");
-        RabbyUtils.rnCtxSendEvent(reactContext, "onTimeChanged", params);
+        PausableEventGate.forContext(reactContext).sendCollapsed("onTimeChanged", params);
       } else if (Intent.ACTION_TIMEZONE_CHANGED.equals(action)) {
         params.putString("reason", "timeZoneChanged");
-        RabbyUtils.rnCtxSendEvent(reactContext, "onTimeChanged", params);
+        PausableEventGate.forContext(reactContext).sendCollapsed("onTimeChanged", params);
       }/*  else {
         params.putString("reason", "unknown");
         RabbyUtils.rnCtxSendEvent(reactContext, "onTimeChanged", params);
       } */
     }
-  }
+  };
 
-  @ReactMethod
-  public void exitAppForSecurity() {
-    android.os.Process.killProcess(android.os.Process.myPid());
+  /**
+   * Registered to the main thread, once for the module lifetime.
+   */
+  private class TimeChangeBroadcastReceiver extends BroadcastReceiver {
+    @Override
+    public void onReceive(Context context, Intent intent) {
+      TrustedClock.onTimeChanged();
+      if (!hasListeners("onTimeChanged")) {
+        return;
+      }
+
+      boolean scheduled = pendingAction != null;
+      pendingAction = intent.getAction();
+      if (!scheduled) {
+        mainHandler.postDelayed(notifyTimeChanged, COALESCE_WINDOW_MS);
+      }
+    }
   }
 
-  @Override
-  public void onHostResume() {
-		IntentFilter filter = new IntentFilter();
+  private void registerTimeChangeReceiver() {
+    if (receiverRegistered) {
+      return;
+    }
+
+    IntentFilter filter = new IntentFilter();
     filter.addAction(Intent.ACTION_TIME_CHANGED);
     filter.addAction(Intent.ACTION_TIMEZONE_CHANGED);
 
-    TimeChangeBroadcastReceiver tcreceiver = new TimeChangeBroadcastReceiver();
-    reactContext.registerReceiver(tcreceiver , filter);
-
     if (Build.VERSION.SDK_INT >= 34) {
-      reactContext.registerReceiver(tcreceiver, filter, Context.RECEIVER_EXPORTED);
+      reactContext.registerReceiver(timeChangeReceiver, filter, Context.RECEIVER_EXPORTED);
     } else {
-      reactContext.registerReceiver(tcreceiver, filter);
+      reactContext.registerReceiver(timeChangeReceiver, filter);
     }
+    receiverRegistered = true;
+  }
+
+  private void unregisterTimeChangeReceiver() {
+    mainHandler.removeCallbacks(notifyTimeChanged);
+    pendingAction = null;
+    if (!receiverRegistered) {
+      return;
+    }
+
+    try {
+      reactContext.unregisterReceiver(timeChangeReceiver);
+    } catch (IllegalArgumentException e) {
+      // not registered
+    }
+    receiverRegistered = false;
+  }
+
+  @ReactMethod
+  public void exitAppForSecurity() {
+    android.os.Process.killProcess(android.os.Process.myPid());
+  }
+
+  /**
+   * @description wall time in ms which isn't affected by changing the device time, see {@link TrustedClock}
+   */
+  @ReactMethod(isBlockingSynchronousMethod = true)
+  public double getTrustedTime() {
+    return TrustedClock.nowMs();
+  }
+
+  @ReactMethod(isBlockingSynchronousMethod = true)
+  public WritableMap getClockState() {
+    WritableMap state = Arguments.createMap();
+    state.putDouble("trustedTime", TrustedClock.nowMs());
+    state.putDouble("wallClockOffset", TrustedClock.wallClockOffsetMs());
+    state.putBoolean("wallClockChanged", TrustedClock.isWallClockChanged());
+    state.putInt("timeChangeCount", TrustedClock.getTimeChangeCount());
+    state.putDouble("lastTimeChangeAt", TrustedClock.getLastTimeChangeAtMs());
+    return state;
+  }
+
+  @Override
+  public void onHostResume() {
+    PausableEventGate.forContext(reactContext).resume();
+    registerTimeChangeReceiver();
   }
   @Override
-  public void onHostPause() {}
+  public void onHostPause() {
+    PausableEventGate.forContext(reactContext).pause();
+  }
   @Override
   public void onHostDestroy() {
-//    reactContext.unregisterReceiver(midnightBroadcastReceiver);
+    unregisterTimeChangeReceiver();
+  }
+
+  @Override
+  public void onCatalystInstanceDestroy() {
+    super.onCatalystInstanceDestroy();
+    reactContext.removeLifecycleEventListener(this);
+    mainHandler.post(new Runnable() {
+      @Override
+      public void run() {
+        unregisterTimeChangeReceiver();
+      }
+    });
   }
 }
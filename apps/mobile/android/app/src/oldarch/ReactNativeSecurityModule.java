@@ -1,18 +1,17 @@
 package com.debank.rabbymobile;
 
-import android.app.Activity;
 import androidx.annotation.NonNull;
 
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactMethod;
-import android.view.WindowManager;
 
 public class ReactNativeSecurityModule extends SimplePackageSpec {
   public static final String NAME = "ReactNativeSecurity";
 
   ReactNativeSecurityModule(ReactApplicationContext context) {
     super(context);
+    SecureWindowManager.attach(context);
   }
 
   @Override
@@ -23,29 +22,11 @@ public class ReactNativeSecurityModule extends SimplePackageSpec {
 
   @ReactMethod
   public void blockScreen() {
-    final Activity activity = getCurrentActivity();
-
-    if (activity != null) {
-      activity.runOnUiThread(new Runnable() {
-        @Override
-        public void run() {
-            activity.getWindow().setFlags(WindowManager.LayoutParams.FLAG_SECURE, WindowManager.LayoutParams.FLAG_SECURE);
-        }
-      });
-    }
+    SecureWindowManager.requestSecure(getCurrentActivity(), NAME, true);
   }
 
   @ReactMethod
   public void unblockScreen() {
-    final Activity activity = getCurrentActivity();
-
-    if (activity != null) {
-      activity.runOnUiThread(new Runnable() {
-        @Override
-        public void run() {
-          activity.getWindow().clearFlags(WindowManager.LayoutParams.FLAG_SECURE);
-        }
-      });
-    }
+    SecureWindowManager.requestSecure(getCurrentActivity(), NAME, false);
   }
 }
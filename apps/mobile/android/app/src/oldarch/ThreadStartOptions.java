@@ -0,0 +1,28 @@
+package com.debank.rabbymobile;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.ReadableMap;
+
+/**
+ * Options of {@link RNThreadModule#startThread}, read once from the JS map.
+ */
+final class ThreadStartOptions {
+  static final ThreadStartOptions DEFAULT = new ThreadStartOptions(false);
+
+  /** load the bundle packed in app even with dev support, instead of downloading it from the dev server */
+  final boolean usePackedResource;
+
+  private ThreadStartOptions(boolean usePackedResource) {
+    this.usePackedResource = usePackedResource;
+  }
+
+  static ThreadStartOptions fromMap(@Nullable ReadableMap options) {
+    if (options == null) {
+      return DEFAULT;
+    }
+
+    boolean usePackedResource = RabbyUtils.parseBooleanOption(options, "usePackedResource", DEFAULT.usePackedResource);
+    return usePackedResource == DEFAULT.usePackedResource ? DEFAULT : new ThreadStartOptions(usePackedResource);
+  }
+}
@@ -0,0 +1,83 @@
+package com.debank.rabbymobile
+
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okio.Buffer
+import okio.GzipSink
+import okio.buffer
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class RequestCoalescingInterceptorTest {
+    private val server = MockWebServer()
+    private val client = OkHttpClient.Builder()
+        .addInterceptor(RequestCoalescingInterceptor())
+        .build()
+    private val executor = Executors.newFixedThreadPool(2)
+
+    @Before
+    fun setUp() {
+        server.start()
+    }
+
+    @After
+    fun tearDown() {
+        executor.shutdownNow()
+        server.shutdown()
+    }
+
+    private fun gzip(text: String): Buffer {
+        val gzipped = Buffer()
+        GzipSink(gzipped).buffer().use { it.writeUtf8(text) }
+        return gzipped
+    }
+
+    private fun fetch(signature: String): Callable<String> {
+        return Callable {
+            val request = Request.Builder()
+                .url(server.url("/v1/chain/list"))
+                .header("x-api-sign", signature)
+                .build()
+            client.newCall(request).execute().use { it.body!!.string() }
+        }
+    }
+
+    @Test
+    fun coalescesGzipChunkedResponse() {
+        val json = "[" + (1..500).joinToString(",") { "{\"id\":$it}" } + "]"
+        server.enqueue(
+            MockResponse()
+                .addHeader("Content-Encoding", "gzip")
+                .setChunkedBody(gzip(json), 256)
+                .setHeadersDelay(500, TimeUnit.MILLISECONDS)
+        )
+        // served only if the second request isn't coalesced
+        server.enqueue(MockResponse().setBody("not coalesced"))
+
+        val first = executor.submit(fetch("sign-1"))
+        Thread.sleep(100)
+        val second = executor.submit(fetch("sign-2"))
+
+        // decoded by okhttp's transparent gzip, so both bodies have no known length
+        assertEquals(json, first.get(5, TimeUnit.SECONDS))
+        assertEquals(json, second.get(5, TimeUnit.SECONDS))
+        assertEquals(1, server.requestCount)
+    }
+
+    @Test
+    fun sequentialRequestsAreNotCoalesced() {
+        server.enqueue(MockResponse().setBody("first"))
+        server.enqueue(MockResponse().setBody("second"))
+
+        assertEquals("first", fetch("sign-1").call())
+        assertEquals("second", fetch("sign-1").call())
+        assertEquals(2, server.requestCount)
+    }
+}
@@ -0,0 +1,127 @@
+package com.reactlibrary;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+public class ThreadBundleDownloaderTest {
+    private static final String LAST_MODIFIED = "Wed, 21 Oct 2026 07:28:00 GMT";
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private final MockWebServer server = new MockWebServer();
+    private final ThreadBundleDownloader downloader = new ThreadBundleDownloader();
+
+    @Before
+    public void setUp() throws Exception {
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    private static final class Result {
+        final CountDownLatch done = new CountDownLatch(1);
+        File file;
+        boolean fromCache;
+        Exception error;
+    }
+
+    private Result download(File out) throws InterruptedException {
+        final Result result = new Result();
+        downloader.download(server.url("/worker.thread.bundle").toString(), out.getAbsolutePath(),
+            new ThreadBundleDownloader.Callback() {
+                @Override
+                public void onReady(File bundleFile, boolean fromCache) {
+                    result.file = bundleFile;
+                    result.fromCache = fromCache;
+                    result.done.countDown();
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    result.error = e;
+                    result.done.countDown();
+                }
+            });
+        assertTrue(result.done.await(5, TimeUnit.SECONDS));
+        return result;
+    }
+
+    private static String read(File file) throws Exception {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void revalidatesWithLastModified() throws Exception {
+        File out = new File(tmp.getRoot(), "worker.thread");
+
+        // Metro sends Last-Modified only
+        server.enqueue(new MockResponse().setBody("bundle v1").addHeader("Last-Modified", LAST_MODIFIED));
+        Result first = download(out);
+        assertNull(first.error);
+        assertFalse(first.fromCache);
+        assertEquals("bundle v1", read(out));
+        assertNull(server.takeRequest().getHeader("If-Modified-Since"));
+
+        server.enqueue(new MockResponse().setResponseCode(304));
+        Result second = download(out);
+        assertNull(second.error);
+        assertTrue(second.fromCache);
+        assertEquals("bundle v1", read(out));
+        RecordedRequest revalidation = server.takeRequest();
+        assertEquals(LAST_MODIFIED, revalidation.getHeader("If-Modified-Since"));
+        assertNull(revalidation.getHeader("If-None-Match"));
+    }
+
+    @Test
+    public void replacesBundleWhenModified() throws Exception {
+        File out = new File(tmp.getRoot(), "worker.thread");
+
+        server.enqueue(new MockResponse().setBody("bundle v1").addHeader("ETag", "\"v1\""));
+        download(out);
+        server.takeRequest();
+
+        server.enqueue(new MockResponse().setBody("bundle v2").addHeader("ETag", "\"v2\""));
+        Result second = download(out);
+        assertNull(second.error);
+        assertFalse(second.fromCache);
+        assertEquals("bundle v2", read(out));
+        assertEquals("\"v1\"", server.takeRequest().getHeader("If-None-Match"));
+    }
+
+    @Test
+    public void doesNotRevalidateWithoutCachedBundle() throws Exception {
+        File out = new File(tmp.getRoot(), "worker.thread");
+
+        server.enqueue(new MockResponse().setBody("bundle v1").addHeader("Last-Modified", LAST_MODIFIED));
+        download(out);
+        server.takeRequest();
+        assertTrue(out.delete());
+
+        server.enqueue(new MockResponse().setBody("bundle v1"));
+        Result second = download(out);
+        assertFalse(second.fromCache);
+        assertNull(server.takeRequest().getHeader("If-Modified-Since"));
+    }
+}
@@ -442,6 +442,13 @@ const setLastScreenshot = (
 };
 
 if (IS_ANDROID && !FORCE_DISABLE_FEEDBACK_BY_SCREENSHOT) {
+  // enough for the feedback preview and upload, keeps the event payload small
+  RNScreenshotPrevent.setScreenshotCaptureOptions({
+    maxWidth: 720,
+    maxHeight: 1600,
+    format: 'webp',
+    quality: 80,
+  });
   RNScreenshotPrevent.startScreenCaptureDetection().then(() => {
     console.debug(
       '[info] RNScreenshotPrevent started screen capture detection on Android',
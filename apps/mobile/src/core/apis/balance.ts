@@ -1,6 +1,6 @@
 import { cached } from '@/utils/cache';
 import { preferenceService, keyringService } from '../services';
-import { testOpenapi } from '../request';
+import { backgroundOpenapi, openapi, testOpenapi } from '../request';
 import { isSameAddress } from '@rabby-wallet/base-utils/dist/isomorphic/address';
 import { CORE_KEYRING_TYPES } from '@rabby-wallet/keyring-utils';
 import { getTokenSettings } from '@/utils/getTokenSettings';
@@ -9,7 +9,11 @@ import {
   EvmTotalBalanceResponse,
 } from '@/databases/hooks/balance';
 
-const getTotalBalanceCached = async (address: string, force?: boolean) => {
+const getTotalBalanceCached = async (
+  address: string,
+  force?: boolean,
+  background?: boolean,
+) => {
   const addresses = await keyringService.getAllAddresses();
   const filtered = addresses.filter(item =>
     isSameAddress(item.address, address),
@@ -28,6 +32,7 @@ const getTotalBalanceCached = async (address: string, force?: boolean) => {
     force,
     false,
     true,
+    background ? backgroundOpenapi : openapi,
   );
   preferenceService.updateAddressBalance(address, data);
   return data;
@@ -53,15 +58,18 @@ export const getAddressBalance = async (
   {
     force = false,
     isTestnet = false,
+    background = false,
   }: {
     force?: boolean;
     isTestnet?: boolean;
+    /** @description run the mainnet requests in the background lane */
+    background?: boolean;
   } = {},
 ) => {
   if (isTestnet) {
     return getTestnetTotalBalanceCached([address], address, force);
   }
-  return getTotalBalanceCached(address, force);
+  return getTotalBalanceCached(address, force, background);
 };
 
 export const getAddressCacheBalanceSync = (
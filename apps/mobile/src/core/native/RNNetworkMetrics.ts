@@ -0,0 +1,75 @@
+import { AppState } from 'react-native';
+import * as Sentry from '@sentry/react-native';
+import { IS_ANDROID, resolveNativeModule } from './utils';
+
+const { RNNetworkMetrics: nativeModule } =
+  resolveNativeModule('RNNetworkMetrics');
+
+/**
+ * @platform Android
+ * @description metrics of requests made by the native network client
+ */
+async function getSnapshot() {
+  if (!IS_ANDROID) return [];
+
+  return nativeModule.getSnapshot();
+}
+
+/**
+ * @description attach the slowest endpoints to the Sentry scope, then reset the metrics.
+ * No event is sent for them, they go along with the next events reported by the app.
+ */
+async function attachToSentry(options?: { top?: number }) {
+  const { top = 20 } = options || {};
+  const endpoints = await getSnapshot();
+  if (!endpoints.length) return;
+
+  const slowest = [...endpoints]
+    .sort((a, b) => b.total.p90Ms - a.total.p90Ms)
+    .slice(0, top);
+
+  // one line per endpoint, nested values deeper than the normalize depth are dropped
+  const summary: Record<string, string> = {};
+  slowest.forEach(item => {
+    summary[item.endpoint] = [
+      `count ${item.total.count}`,
+      `failures ${item.failures}`,
+      `total p50/p90/p99 ${item.total.p50Ms}/${item.total.p90Ms}/${item.total.p99Ms}ms`,
+      `ttfb p90 ${item.ttfb.p90Ms}ms`,
+      `body p90 ${item.body.p90Ms}ms`,
+      `received ${item.bytesReceived}B`,
+    ].join(', ');
+  });
+  Sentry.setContext('network_metrics', summary);
+  nativeModule.reset();
+}
+
+const REPORT_TOP_ENDPOINTS = 20;
+
+/**
+ * @platform Android
+ * @description attach the slowest endpoints each time the app goes to background, when the
+ * user doesn't wait for requests anymore
+ */
+function startAttachOnAppBackground() {
+  if (!IS_ANDROID) return;
+
+  AppState.addEventListener('change', state => {
+    if (state !== 'background') return;
+
+    attachToSentry({ top: REPORT_TOP_ENDPOINTS }).catch(error => {
+      console.warn('[RNNetworkMetrics] attachToSentry failed', error);
+    });
+  });
+}
+
+const RNNetworkMetrics = Object.freeze({
+  getSnapshot,
+  attachToSentry,
+  startAttachOnAppBackground,
+  reset: () => {
+    if (IS_ANDROID) nativeModule.reset();
+  },
+});
+
+export default RNNetworkMetrics;
@@ -4,6 +4,7 @@ import {
   IS_IOS,
   makeRnEEClass,
   resolveNativeModule,
+  ScreenshotCaptureOptions,
 } from './utils';
 import i18next from 'i18next';
 
@@ -18,11 +19,20 @@ type Listeners = {
   userDidTakeScreenshot: (ret?: {
     captured?: boolean;
     path?: string;
+    /** @platform Android, when output is `file` */
+    uri?: string;
+    /** @platform Android, when output is `file` */
+    byteSize?: number;
     height?: string | number;
     width?: string | number;
     imageBase64?: string;
-    imageType?: 'jpeg' | 'png';
+    imageType?: 'jpeg' | 'png' | 'webp';
     name?: string;
+    /**
+     * @platform Android, count of captures rate limited since the previous event,
+     * sent alone with `captured: false` if no capture follows them
+     */
+    coalescedCount?: number;
   }) => any;
   screenCapturedChanged: (ret: { isBeingCaptured: boolean }) => any;
   screenCaptureDetectionChanged: (ret: { enabled: boolean }) => any;
@@ -147,6 +157,11 @@ const RNScreenshotPrevent = Object.freeze({
     // }
     return nativeModule.startScreenCaptureDetection();
   },
+  setScreenshotCaptureOptions: (options: ScreenshotCaptureOptions) => {
+    if (!IS_ANDROID) return;
+
+    return nativeModule.setScreenshotCaptureOptions?.(options);
+  },
   scanScreenshotDirectory: (
     ...params: Parameters<typeof nativeModule.scanScreenshotDirectory>
   ) => {
@@ -10,6 +10,15 @@ const { RNThread } = resolveNativeModule('RNThread');
 
 type Listeners = {
   msgFromThread: (payload: { tid: number; message: string }) => any;
+  msgChunkFromThread: (payload: {
+    tid: number;
+    reqid: string;
+    seq: number;
+    chunk: string | null;
+    done: boolean;
+    /** set when the stream is ended by native side before its last chunk */
+    error?: string;
+  }) => any;
   DevThreadMessage: (payload?: { tid: number; message: string }) => any;
   '@ThreadStarted': (payload?: { tid: number }) => any;
   // '@ThreadError': (payload?: { tid: number; errorCode?: string; errorMessage?: string }) => any;
@@ -32,9 +41,15 @@ function waitNextThread() {
 }
 
 type MsgHandler = (message: WorkerDuplexReceive) => void;
+type ChunkHandler = (
+  message: WorkerDuplexReceive | null,
+  ctx: { reqid: string; seq: number; done: boolean; error?: string },
+) => void;
 
 export const ThreadError = {
   Timeout: 'Timeout',
+  Cancelled: 'Cancelled',
+  StreamEvicted: 'StreamEvicted',
 };
 
 export class Thread {
@@ -76,13 +91,36 @@ export class Thread {
   async remoteCall<K extends WorkerDuplexPost['type']>(
     type: K,
     msg?: Omit<Extract<WorkerDuplexPost, { type: K }>, 'type' | 'reqid'>,
-    options?: { timeout?: number },
+    options?: {
+      timeout?: number;
+      /**
+       * @description aborting rejects with `ThreadError.Cancelled`, and cancels the request
+       * in the worker, dropped if not received yet
+       */
+      signal?: AbortSignal;
+    },
   ) {
     const reqid = stringUtils.randString();
-    const { timeout = 1e3 * 10 } = options || {};
+    const { timeout = 1e3 * 10, signal } = options || {};
+
+    if (signal?.aborted) {
+      throw new Error(ThreadError.Cancelled);
+    }
+
+    const cancelRequest = () => {
+      this.#id?.then(id => RNThread.cancelThreadRequest(id, reqid));
+    };
 
     const waitResult = new Promise<WorkerDuplexReceiveDict[K]['data']>(
       (resolve, reject) => {
+        let settled = false;
+        const onAbort = () => {
+          if (settled) return;
+          settled = true;
+          sub.remove();
+          cancelRequest();
+          reject(new Error(ThreadError.Cancelled));
+        };
         const sub = this.onThreadMessage(message => {
           if (message.type === `response:${type}` && message.reqid === reqid) {
             console.debug(
@@ -91,20 +129,29 @@ export class Thread {
               message,
               reqid,
             );
+            settled = true;
             resolve(message.data);
             sub.remove();
+            signal?.removeEventListener('abort', onAbort);
           }
         });
+        signal?.addEventListener('abort', onAbort);
         sleep(timeout).then(() => {
+          if (settled) return;
+          settled = true;
           reject(new Error(ThreadError.Timeout));
           sub.remove();
+          signal?.removeEventListener('abort', onAbort);
+          // no one waits for it anymore
+          cancelRequest();
         });
       },
     );
 
     this.#id?.then(id => {
-      return RNThread.postThreadMessage(
+      return RNThread.postThreadRequest(
         id,
+        reqid,
         JSON.stringify(Object.assign({ reqid, type }, msg)),
       );
     });
@@ -112,6 +159,96 @@ export class Thread {
     return waitResult;
   }
 
+  /**
+   * @description like `remoteCall`, but the worker sends the result by chunks in order if it
+   * supports streaming for this type, or in one chunk otherwise. Resolves once the last chunk
+   * is received, `timeout` applies between chunks.
+   */
+  async remoteCallStream<K extends WorkerDuplexPost['type']>(
+    type: K,
+    msg: Omit<Extract<WorkerDuplexPost, { type: K }>, 'type' | 'reqid'>,
+    options: {
+      onChunk: (
+        data: WorkerDuplexReceiveDict[K]['data'],
+        ctx: { seq: number; done: boolean },
+      ) => void;
+      timeout?: number;
+      signal?: AbortSignal;
+    },
+  ) {
+    const reqid = stringUtils.randString();
+    const { onChunk, timeout = 1e3 * 10, signal } = options;
+
+    if (signal?.aborted) {
+      throw new Error(ThreadError.Cancelled);
+    }
+
+    const waitDone = new Promise<void>((resolve, reject) => {
+      let settled = false;
+      let timer: ReturnType<typeof setTimeout> | null = null;
+      const settle = (error?: Error) => {
+        if (settled) return;
+        settled = true;
+        if (timer) clearTimeout(timer);
+        subChunk.remove();
+        subMessage.remove();
+        signal?.removeEventListener('abort', onAbort);
+        if (error) {
+          this.#id?.then(id => RNThread.cancelThreadRequest(id, reqid));
+          reject(error);
+        } else {
+          resolve();
+        }
+      };
+      const resetTimer = () => {
+        if (timer) clearTimeout(timer);
+        timer = setTimeout(
+          () => settle(new Error(ThreadError.Timeout)),
+          timeout,
+        );
+      };
+      const onAbort = () => settle(new Error(ThreadError.Cancelled));
+
+      const subChunk = this.onThreadChunk((message, ctx) => {
+        if (ctx.reqid !== reqid) return;
+        if (ctx.error) {
+          settle(new Error(ctx.error));
+          return;
+        }
+        if (message?.type !== `response:${type}`) return;
+        onChunk((message as WorkerDuplexReceiveDict[K]).data, {
+          seq: ctx.seq,
+          done: ctx.done,
+        });
+        if (ctx.done) settle();
+        else resetTimer();
+      });
+      // not streamed by the worker
+      const subMessage = this.onThreadMessage(message => {
+        if (message.type !== `response:${type}` || message.reqid !== reqid) {
+          return;
+        }
+        onChunk((message as WorkerDuplexReceiveDict[K]).data, {
+          seq: 0,
+          done: true,
+        });
+        settle();
+      });
+      signal?.addEventListener('abort', onAbort);
+      resetTimer();
+    });
+
+    this.#id?.then(id => {
+      return RNThread.postThreadRequest(
+        id,
+        reqid,
+        JSON.stringify(Object.assign({ reqid, type, stream: true }, msg)),
+      );
+    });
+
+    return waitDone;
+  }
+
   #_resetSubs() {
     this._subs.forEach(sub => sub.remove());
     this._subs = [];
@@ -127,6 +264,16 @@ export class Thread {
     return { remove };
   }
 
+  #_threadChunkSubscriber = new Set<ChunkHandler>();
+  onThreadChunk(listener: ChunkHandler) {
+    this.#_threadChunkSubscriber.add(listener);
+    const remove = () => {
+      this.#_threadChunkSubscriber.delete(listener);
+    };
+
+    return { remove };
+  }
+
   async start() {
     return (this.#id = RNThread.startThread(this.#jsPath.replace('.js', ''), {
       // ...(__DEV__ && { usePackedResource: true }),
@@ -158,6 +305,30 @@ export class Thread {
             });
           }
         });
+        this.#internal_addListener('msgChunkFromThread', payload => {
+          if (payload.tid !== id) return;
+
+          const ctx = {
+            reqid: payload.reqid,
+            seq: payload.seq,
+            done: payload.done,
+            error: payload.error,
+          };
+          if (payload.error) {
+            this.#_threadChunkSubscriber.forEach(fn => fn?.(null, ctx));
+            return;
+          }
+
+          const parsedChunk = parseResponse(payload.chunk || '');
+          if (!parsedChunk) {
+            console.warn(
+              'id-Thread RNThread received invalid chunk:',
+              payload.chunk,
+            );
+            return;
+          }
+          this.#_threadChunkSubscriber.forEach(fn => fn?.(parsedChunk, ctx));
+        });
         return id;
       })
       .catch(err => {
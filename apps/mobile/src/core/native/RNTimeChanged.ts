@@ -35,9 +35,18 @@ function subscribeTimeChanged(fn: Listeners['onTimeChanged']) {
   return eventEmitter.addListener('onTimeChanged', fn);
 }
 
+/**
+ * @description time in ms not affected by changes of the device time, falls back to `Date.now()`
+ * where unsupported
+ */
+function getTrustedTime(): number {
+  return nativeModule.getTrustedTime?.() ?? Date.now();
+}
+
 const RNTimeChanged = Object.freeze({
   ...nativeModule,
   subscribeTimeChanged,
+  getTrustedTime,
 });
 
 export default RNTimeChanged;
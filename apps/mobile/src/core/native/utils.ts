@@ -10,6 +10,58 @@ import { enableLayoutAnimations } from 'react-native-reanimated';
 
 const isTurboModuleEnabled = global.__turboModuleProxy != null;
 
+type NetworkLatencyHistogram = {
+  count: number;
+  sumMs: number;
+  maxMs: number;
+  p50Ms: number;
+  p90Ms: number;
+  p99Ms: number;
+};
+
+export type NetworkEndpointMetrics = {
+  /** @example `app-api.rabby.io/v1/user/:id/tokens` */
+  endpoint: string;
+  failures: number;
+  bytesSent: number;
+  bytesReceived: number;
+  dns: NetworkLatencyHistogram;
+  connect: NetworkLatencyHistogram;
+  tls: NetworkLatencyHistogram;
+  /** time to first byte, from request sent to response headers */
+  ttfb: NetworkLatencyHistogram;
+  body: NetworkLatencyHistogram;
+  total: NetworkLatencyHistogram;
+};
+
+export type TrustedClockState = {
+  trustedTime: number;
+  /** @description how far the device clock is ahead of `trustedTime`, negative if behind */
+  wallClockOffset: number;
+  /** @description whether the device clock was moved since app start */
+  wallClockChanged: boolean;
+  timeChangeCount: number;
+  /** @description `trustedTime` of the last time change, 0 if none */
+  lastTimeChangeAt: number;
+};
+
+export type ScreenshotCaptureOptions = {
+  /** @default 0, no limit */
+  maxWidth?: number;
+  /** @default 0, no limit */
+  maxHeight?: number;
+  /** @default 'png' */
+  format?: 'png' | 'webp' | 'jpeg';
+  /** 0-100, ignored by png, @default 100 */
+  quality?: number;
+  /**
+   * @description `file` writes the image into the cache dir and the event only carries
+   * its `path`, `uri` and `byteSize`, keeping the most recent captures only
+   * @default 'base64'
+   */
+  output?: 'base64' | 'file';
+};
+
 interface NativeModulesStatic {
   ReactNativeSecurity: /* NativeModule &  */ {
     blockScreen(): void;
@@ -20,6 +72,11 @@ interface NativeModulesStatic {
     startScreenCaptureDetection: () => Promise<void>;
     stopScreenCaptureDetection: () => Promise<void>;
     togglePreventScreenshot: (isPrevent: boolean) => void;
+    /**
+     * @platform Android
+     * @description options of images carried by `userDidTakeScreenshot`, missing keys are reset to defaults
+     */
+    setScreenshotCaptureOptions?: (options: ScreenshotCaptureOptions) => void;
     iosIsBeingCaptured(): boolean;
     // iosToggleBlurView(isProtected: boolean): void;
     iosProtectFromScreenRecording(): Promise<void>;
@@ -27,9 +84,26 @@ interface NativeModulesStatic {
   };
   RNTimeChanged: NativeModule & {
     exitAppForSecurity(): void;
+    /**
+     * @platform Android
+     * @description wall time in ms which isn't affected by changing the device time, anchored
+     * to the device time at app start. A network time correction made after launch is not
+     * picked up, it shows as `wallClockChanged` until the app restarts.
+     */
+    getTrustedTime?(): number;
+    /**
+     * @platform Android
+     */
+    getClockState?(): TrustedClockState;
   };
   RNHelpers: NativeModule & {
     forceExitApp(): void;
+    /**
+     * @platform Android
+     * @description counters of events sent from native modules to JS since app start,
+     * `coalesced` ones were superseded by a later event before being sent
+     */
+    getEventStats?(): Promise<{ emitted: number; coalesced: number }>;
     /**
      * @description try to set a file to not be backed up by iCloud
      * @param filePath
@@ -40,6 +114,10 @@ interface NativeModulesStatic {
     //  */
     // iosExcludeDirectoryFromBackup?(directoryPath: string): Promise<boolean>;
   };
+  RNNetworkMetrics: {
+    getSnapshot(): Promise<NetworkEndpointMetrics[]>;
+    reset(): void;
+  };
   RNThread: NativeModule & {
     startThread(
       jsFilePath: string,
@@ -49,6 +127,15 @@ interface NativeModulesStatic {
     ): Promise<number>;
     stopThread(threadId: number): void;
     postThreadMessage(threadId: number, message: string): void;
+    postThreadRequest(
+      threadId: number,
+      requestId: string,
+      message: string,
+    ): void;
+    /**
+     * @description resolves whether the request was dropped before the worker received it
+     */
+    cancelThreadRequest(threadId: number, requestId: string): Promise<boolean>;
   };
 }
 
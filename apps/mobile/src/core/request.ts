@@ -1,3 +1,4 @@
+import { Platform } from 'react-native';
 import { OpenApiService } from '@rabby-wallet/rabby-api';
 import { RabbyApiPlugin } from '@rabby-wallet/rabby-api/dist/plugins/intf';
 
@@ -13,6 +14,18 @@ const SIGN_HDS = [
   'x-api-sign',
 ] as const;
 
+/**
+ * @platform Android
+ * @description set to `background` on requests issued from {@link backgroundOpenapi},
+ * the native client runs them in its background lane. The header is stripped before the
+ * request is sent.
+ */
+export const REQUEST_PRIORITY_HEADER = 'x-rabby-priority';
+export const REQUEST_PRIORITY = {
+  interactive: 'interactive',
+  background: 'background',
+} as const;
+
 export const SignApiPlugin: RabbyApiPlugin = {
   async onSignRequest(ctx) {
     const { parsed, axiosRequestConfig: config } = ctx;
@@ -27,6 +40,18 @@ export const SignApiPlugin: RabbyApiPlugin = {
   },
 };
 
+const BackgroundSignApiPlugin: RabbyApiPlugin = {
+  async onSignRequest(ctx) {
+    await SignApiPlugin.onSignRequest?.(ctx);
+
+    if (Platform.OS === 'android') {
+      const { axiosRequestConfig: config } = ctx;
+      config.headers = config.headers || {};
+      config.headers[REQUEST_PRIORITY_HEADER] = REQUEST_PRIORITY.background;
+    }
+  },
+};
+
 export const openapi = new OpenApiService({
   store: openApiStore,
   plugin: SignApiPlugin,
@@ -35,6 +60,19 @@ export const openapi = new OpenApiService({
 });
 openapi.initSync();
 
+/**
+ * @description same as {@link openapi}, for bulk refreshes the user isn't waiting on
+ * (e.g. balances of accounts out of view), its requests are marked as background ones.
+ * Keep its host in sync with `openapi`.
+ */
+export const backgroundOpenapi = new OpenApiService({
+  store: openApiStore,
+  plugin: BackgroundSignApiPlugin,
+  clientName: 'rabbymobile',
+  clientVersion: APP_VERSIONS.fromJs,
+});
+backgroundOpenapi.initSync();
+
 // TODO: REMOVE ME
 export const testOpenapi = new OpenApiService({
   store: {
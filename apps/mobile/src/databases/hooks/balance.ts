@@ -24,10 +24,11 @@ type ReturnType<T extends (...args: any) => any> = T extends (
 export const getAppChainUsdValue = async (
   address: string,
   excludeProtocolIds: string[],
+  service = openapi,
 ) => {
   let appChainTotalNetWorth = 0;
   try {
-    const { apps } = await openapi.getAppChainList(address);
+    const { apps } = await service.getAppChainList(address);
     const lowerCasePortocolIds = excludeProtocolIds?.map(app =>
       app?.toLowerCase(),
     );
@@ -50,11 +51,12 @@ export const batchBalanceWithLocalCache = async (
   force?: boolean,
   onlySync?: boolean,
   needAppChainUsdValue?: boolean,
+  service = openapi,
 ): Promise<EvmTotalBalanceResponse> => {
   const { address, isCore } = params;
   const isExpired = await BalanceEntity.isExpired(address, isCore);
   if (force || isExpired) {
-    const balance = await openapi.getTotalBalanceV2(params);
+    const balance = await service.getTotalBalanceV2(params);
     const formatBalance: EvmTotalBalanceResponse = {
       ...balance,
       evm_usd_value: balance.total_usd_value,
@@ -63,6 +65,7 @@ export const batchBalanceWithLocalCache = async (
       const appChainUsdValue = await getAppChainUsdValue(
         address,
         params.excluded_protocol_ids,
+        service,
       );
       formatBalance.total_usd_value += appChainUsdValue;
     }
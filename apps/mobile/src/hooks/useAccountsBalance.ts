@@ -232,6 +232,8 @@ async function fetchAccountsBalanceFromApi(
       try {
         const resData = await apiBalance.getAddressBalance(lcAddr, {
           force: true,
+          // balances of other accounts are refreshed in the background lane
+          background: notMattered,
         });
         retBalance[lcAddr] = makeAccountBalanceFromCache(account, {
           res: resData,
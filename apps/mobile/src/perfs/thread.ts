@@ -26,7 +26,8 @@ export async function rpcCallAndFallback<
     if (!__DEV__ || !workerThread.isRunning) {
       throw new Error(ThreadError.Timeout);
     }
-    return fn({
+    // awaited, so a call timing out in the worker falls back too
+    return await fn({
       workThread: workerThread,
       rpcCall: workerThread.remoteCall.bind(workerThread),
     });
@@ -6,6 +6,15 @@ import {
 } from '@aave/math-utils';
 import { rpcCallAndFallback } from './thread';
 
+type WorkerReqOptions = {
+  /**
+   * @description aborting rejects with `ThreadError.Cancelled`. The worker drops the request
+   * if it's still queued, and stops formatting reserves at the next slice, other computations
+   * run to completion and their result is discarded
+   */
+  signal?: AbortSignal;
+};
+
 export async function worker_plus(a: number, b: number) {
   return rpcCallAndFallback(
     ctx => {
@@ -23,13 +32,18 @@ export async function worker_plus(a: number, b: number) {
 
 export async function worker_formatReserves(
   input: Parameters<typeof import('@aave/math-utils').formatReserves>[0],
+  options?: WorkerReqOptions,
 ) {
   return rpcCallAndFallback(
     async ctx => {
       return ctx
-        .rpcCall('formatReserves', {
-          data: input,
-        })
+        .rpcCall(
+          'formatReserves',
+          {
+            data: input,
+          },
+          { signal: options?.signal },
+        )
         .then(res => res?.result);
     },
     () => {
@@ -41,13 +55,18 @@ export async function worker_formatReserves(
 
 export async function worker_formatUserSummary(
   input: Parameters<typeof import('@aave/math-utils').formatUserSummary>[0],
+  options?: WorkerReqOptions,
 ) {
   return rpcCallAndFallback(
     async ctx => {
       return ctx
-        .rpcCall('formatUserSummary', {
-          data: input,
-        })
+        .rpcCall(
+          'formatUserSummary',
+          {
+            data: input,
+          },
+          { signal: options?.signal },
+        )
         .then(res => res?.result);
     },
     () => {
@@ -61,13 +80,18 @@ export async function worker_formatReservesAndIncentives(
   input: Parameters<
     typeof import('@aave/math-utils').formatReservesAndIncentives
   >[0],
+  options?: WorkerReqOptions,
 ) {
   return rpcCallAndFallback(
     async ctx => {
       return ctx
-        .rpcCall('formatReservesAndIncentives', {
-          data: input,
-        })
+        .rpcCall(
+          'formatReservesAndIncentives',
+          {
+            data: input,
+          },
+          { signal: options?.signal },
+        )
         .then(res => res?.result);
     },
     () => {
@@ -81,13 +105,18 @@ export async function worker_formatUserSummaryAndIncentives(
   input: Parameters<
     typeof import('@aave/math-utils').formatUserSummaryAndIncentives
   >[0],
+  options?: WorkerReqOptions,
 ) {
   return rpcCallAndFallback(
     async ctx => {
       return ctx
-        .rpcCall('formatUserSummaryAndIncentives', {
-          data: input,
-        })
+        .rpcCall(
+          'formatUserSummaryAndIncentives',
+          {
+            data: input,
+          },
+          { signal: options?.signal },
+        )
         .then(res => res?.result);
     },
     () => {
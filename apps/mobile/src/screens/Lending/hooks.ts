@@ -56,6 +56,7 @@ import {
   worker_formatReservesAndIncentives,
   worker_formatUserSummaryAndIncentives,
 } from '@/perfs/workerReq';
+import { ThreadError } from '@/core/native/RNThread';
 import { StoreApi, UseBoundStore } from 'zustand';
 import { useShallow } from 'zustand/react/shallow';
 import { isValidAddress } from '@ethereumjs/util';
@@ -318,13 +319,16 @@ const DEFAULT_RESERVES_AND_INCENTIVES = {
   formattedPoolReservesAndIncentives: [] as FormattedReservesAndIncentives[],
 };
 
-async function computeFormattedReservesAndIncentives({
-  reserves,
-  eModes,
-}: {
-  reserves: ReservesDataHumanized | undefined;
-  eModes: EmodeDataHumanized[] | undefined;
-}) {
+async function computeFormattedReservesAndIncentives(
+  {
+    reserves,
+    eModes,
+  }: {
+    reserves: ReservesDataHumanized | undefined;
+    eModes: EmodeDataHumanized[] | undefined;
+  },
+  signal?: AbortSignal,
+) {
   if (!reserves) {
     return DEFAULT_RESERVES_AND_INCENTIVES;
   }
@@ -334,31 +338,37 @@ async function computeFormattedReservesAndIncentives({
   const currentTimestamp = dayjs().unix();
 
   const formattedReserves = (
-    (await worker_formatReserves({
-      reserves: reservesArray,
-      currentTimestamp,
-      eModes,
-      marketReferenceCurrencyDecimals:
-        baseCurrencyData.marketReferenceCurrencyDecimals,
-      marketReferencePriceInUsd:
-        baseCurrencyData.marketReferenceCurrencyPriceInUsd,
-    })) || []
+    (await worker_formatReserves(
+      {
+        reserves: reservesArray,
+        currentTimestamp,
+        eModes,
+        marketReferenceCurrencyDecimals:
+          baseCurrencyData.marketReferenceCurrencyDecimals,
+        marketReferencePriceInUsd:
+          baseCurrencyData.marketReferenceCurrencyPriceInUsd,
+      },
+      { signal },
+    )) || []
   ).map(mapItem);
   console.debug(
     '[perf] formattedReservesAndIncentivesAtom:: formattedReserves',
     formattedReserves,
   );
   const formattedPoolReservesAndIncentives = (
-    (await worker_formatReservesAndIncentives({
-      reserves: reservesArray,
-      currentTimestamp,
-      marketReferenceCurrencyDecimals:
-        baseCurrencyData.marketReferenceCurrencyDecimals,
-      marketReferencePriceInUsd:
-        baseCurrencyData.marketReferenceCurrencyPriceInUsd,
-      reserveIncentives: [],
-      eModes,
-    })) || []
+    (await worker_formatReservesAndIncentives(
+      {
+        reserves: reservesArray,
+        currentTimestamp,
+        marketReferenceCurrencyDecimals:
+          baseCurrencyData.marketReferenceCurrencyDecimals,
+        marketReferencePriceInUsd:
+          baseCurrencyData.marketReferenceCurrencyPriceInUsd,
+        reserveIncentives: [],
+        eModes,
+      },
+      { signal },
+    )) || []
   ).map(mapItem) as unknown as FormattedReservesAndIncentives[];
   console.debug(
     '[perf] formattedReservesAndIncentivesAtom:: formattedPoolReservesAndIncentives',
@@ -393,13 +403,16 @@ export function useFormattedPoolReservesAndIncentivesAtom() {
   );
 }
 
-async function computeIUserSummary({
-  userReserves,
-  reserves,
-  formattedReserves,
-}: Pick<RemoteDataState, 'userReserves' | 'reserves'> & {
-  formattedReserves: ReturnType<typeof formatReservesAndIncentives> | null;
-}) {
+async function computeIUserSummary(
+  {
+    userReserves,
+    reserves,
+    formattedReserves,
+  }: Pick<RemoteDataState, 'userReserves' | 'reserves'> & {
+    formattedReserves: ReturnType<typeof formatReservesAndIncentives> | null;
+  },
+  signal?: AbortSignal,
+) {
   if (!userReserves || !formattedReserves) {
     return null;
   }
@@ -420,18 +433,21 @@ async function computeIUserSummary({
 
   const startTime = Date.now();
 
-  const syncResult = await worker_formatUserSummaryAndIncentives({
-    currentTimestamp,
-    marketReferencePriceInUsd:
-      baseCurrencyData.marketReferenceCurrencyPriceInUsd,
-    marketReferenceCurrencyDecimals:
-      baseCurrencyData.marketReferenceCurrencyDecimals,
-    userReserves: userReservesArray,
-    formattedReserves,
-    userEmodeCategoryId: userReserves.userEmodeCategoryId,
-    reserveIncentives: [],
-    userIncentives: [],
-  });
+  const syncResult = await worker_formatUserSummaryAndIncentives(
+    {
+      currentTimestamp,
+      marketReferencePriceInUsd:
+        baseCurrencyData.marketReferenceCurrencyPriceInUsd,
+      marketReferenceCurrencyDecimals:
+        baseCurrencyData.marketReferenceCurrencyDecimals,
+      userReserves: userReservesArray,
+      formattedReserves,
+      userEmodeCategoryId: userReserves.userEmodeCategoryId,
+      reserveIncentives: [],
+      userIncentives: [],
+    },
+    { signal },
+  );
   const endTime = Date.now();
   const diff = endTime - startTime;
   console.debug(
@@ -668,6 +684,9 @@ const preQueryParams: {
 // const setRemoteTaskRef: RefLikeObject<null | ReturnType<
 //   typeof InteractionManager.runAfterInteractions
 // >> = { current: null };
+// computations of the info derived from remote data by lendingDataKey, a newer remote data
+// aborts the one in flight for the same key
+const computeControllers = new Map<string, AbortController>();
 const globalSets = {
   setRemoteData: debounce(
     async (
@@ -683,61 +702,83 @@ const globalSets = {
         strict: false,
       });
 
-      const formattedReservesAndIncentives =
-        await computeFormattedReservesAndIncentives(newVal);
-
-      const iUserSummary = await computeIUserSummary({
-        ...newVal,
-        formattedReserves: formattedReservesAndIncentives.formattedReserves,
+      // set first, later updates build on it even if this computation is aborted
+      console.debug('[perf] lending:: remote data will be set', newVal);
+      remoteDataState.setState({
+        ...prev,
+        [lendingDataKey]: newVal,
       });
 
-      const mappedBalances = computeMappedBalances({
-        walletBalances: newVal.walletBalances,
-      });
+      computeControllers.get(lendingDataKey)?.abort();
+      const controller = new AbortController();
+      computeControllers.set(lendingDataKey, controller);
+      const { signal } = controller;
 
-      const displayPoolReserves = computeDisplayPoolReserves({
-        ...newVal,
-        iUserSummary: iUserSummary as UserSummary,
-        mappedBalances: mappedBalances,
-        market: jotaiStore.get(marketAtom),
-      });
+      try {
+        const formattedReservesAndIncentives =
+          await computeFormattedReservesAndIncentives(newVal, signal);
 
-      const wrapperPoolReserveAndFinalDisplayPoolReserves =
-        computeWrapperPoolReserveAndFinalDisplayPoolReserves({
-          displayPoolReserves: displayPoolReserves,
-          formattedPoolReservesAndIncentives:
-            formattedReservesAndIncentives.formattedPoolReservesAndIncentives,
+        const iUserSummary = await computeIUserSummary(
+          {
+            ...newVal,
+            formattedReserves: formattedReservesAndIncentives.formattedReserves,
+          },
+          signal,
+        );
+
+        const mappedBalances = computeMappedBalances({
+          walletBalances: newVal.walletBalances,
+        });
+
+        const displayPoolReserves = computeDisplayPoolReserves({
+          ...newVal,
+          iUserSummary: iUserSummary as UserSummary,
           mappedBalances: mappedBalances,
-          reserves: newVal.reserves,
           market: jotaiStore.get(marketAtom),
         });
 
-      const apyInfo = computeApyInfo({
-        formattedPoolReservesAndIncentives:
-          formattedReservesAndIncentives.formattedPoolReservesAndIncentives,
-        iUserSummary: iUserSummary as UserSummary,
-      });
+        const wrapperPoolReserveAndFinalDisplayPoolReserves =
+          computeWrapperPoolReserveAndFinalDisplayPoolReserves({
+            displayPoolReserves: displayPoolReserves,
+            formattedPoolReservesAndIncentives:
+              formattedReservesAndIncentives.formattedPoolReservesAndIncentives,
+            mappedBalances: mappedBalances,
+            reserves: newVal.reserves,
+            market: jotaiStore.get(marketAtom),
+          });
 
-      console.debug('[perf] lending:: remote data will be set', newVal);
-      remoteDataState.setState({
-        ...prev,
-        [lendingDataKey]: newVal,
-      });
+        const apyInfo = computeApyInfo({
+          formattedPoolReservesAndIncentives:
+            formattedReservesAndIncentives.formattedPoolReservesAndIncentives,
+          iUserSummary: iUserSummary as UserSummary,
+        });
 
-      computedInfoState.setState(prev => {
-        return {
-          ...prev,
-          [lendingDataKey]: {
-            formattedReservesAndIncentivesState: formattedReservesAndIncentives,
-            iUserSummary: iUserSummary,
-            mappedBalances: mappedBalances,
-            displayPoolReserves: displayPoolReserves,
-            wrapperPoolReserveAndFinalDisplayPoolReserves:
-              wrapperPoolReserveAndFinalDisplayPoolReserves,
-            apyInfo: apyInfo,
-          },
-        };
-      });
+        // computed in js by the fallback, which doesn't check the signal
+        if (signal.aborted) return;
+
+        computedInfoState.setState(prev => {
+          return {
+            ...prev,
+            [lendingDataKey]: {
+              formattedReservesAndIncentivesState:
+                formattedReservesAndIncentives,
+              iUserSummary: iUserSummary,
+              mappedBalances: mappedBalances,
+              displayPoolReserves: displayPoolReserves,
+              wrapperPoolReserveAndFinalDisplayPoolReserves:
+                wrapperPoolReserveAndFinalDisplayPoolReserves,
+              apyInfo: apyInfo,
+            },
+          };
+        });
+      } catch (error: any) {
+        // superseded, the newer remote data computes its own info
+        if (error?.message !== ThreadError.Cancelled) throw error;
+      } finally {
+        if (computeControllers.get(lendingDataKey) === controller) {
+          computeControllers.delete(lendingDataKey);
+        }
+      }
     },
     200,
   ),
@@ -4,7 +4,7 @@ import { FooterButtonGroup } from '@/components2024/FooterButtonGroup';
 import { makeBottomSheetProps } from '@/components2024/GlobalBottomSheetModal/utils-help';
 import { toast } from '@/components2024/Toast';
 import { INITIAL_OPENAPI_URL } from '@/constant';
-import { openapi } from '@/core/request';
+import { backgroundOpenapi, openapi } from '@/core/request';
 import { useTheme2024 } from '@/hooks/theme';
 import { createGetStyles2024 } from '@/utils/styles';
 import {
@@ -32,6 +32,7 @@ export const OpenApiPopup: React.FC<{
     const v = host.trim();
     if (/^https?:\/\//.test(v)) {
       openapi.setHost(v);
+      backgroundOpenapi.setHost(v);
       toast.success('Success');
       onClose?.();
     } else {
@@ -39,6 +39,7 @@ import tokenListStore from './store/tokens';
 import { startProcessScene24hBalanceEvents } from './hooks/useScene24hBalance';
 import { startProcessMultiCurveEvents } from './hooks/useMultiCurve';
 import { apisAutoLock } from './core/apis';
+import RNNetworkMetrics from './core/native/RNNetworkMetrics';
 
 startSubscribeLangChange();
 
@@ -75,6 +76,7 @@ rateModalStartSyncNetworth();
 screenshotModalStartSyncNetworth();
 
 startComputationThread();
+RNNetworkMetrics.startAttachOnAppBackground();
 startProcessScene24hBalanceEvents();
 startProcessMultiCurveEvents();
 
@@ -11,6 +11,36 @@ export const ThreadSelf = {
   postMessage(message: WorkerDuplexReceive) {
     return ThreadSelfModule.postMessage(jsonResponse(message));
   },
+
+  /**
+   * @description send a partial result of a `stream` request, `seq` starts from 0 and the
+   * last chunk is marked `done`
+   */
+  postChunk(
+    reqid: string,
+    seq: number,
+    message: WorkerDuplexReceive,
+    done: boolean,
+  ) {
+    return ThreadSelfModule.postChunk(reqid, seq, jsonResponse(message), done);
+  },
+
+  /**
+   * @description whether the host cancelled the request, long running handlers should
+   * check it and skip the rest of their work
+   */
+  isRequestCancelled(reqid?: string): boolean {
+    if (!reqid) return false;
+    return !!ThreadSelfModule.isRequestCancelled?.(reqid);
+  },
+
+  /**
+   * @description same time as `RNTimeChanged.getTrustedTime` of the host, not affected by
+   * changes of the device time
+   */
+  getTrustedTime(): number {
+    return ThreadSelfModule.getTrustedTime?.() ?? Date.now();
+  },
 };
 
 type Listeners = {
@@ -4,6 +4,11 @@ type WorkerMsg<T extends string, P extends object = void> = {
 
 type WorkerReq<T extends string, P extends object = void> = WorkerMsg<T, P> & {
   reqid: string;
+  /**
+   * @description ask the worker to send partial results as chunks if the request supports it,
+   * each chunk being a response of the same type
+   */
+  stream?: boolean;
 };
 
 type WorkerResponse<
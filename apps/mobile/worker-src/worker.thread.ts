@@ -12,24 +12,88 @@ import { stringUtils } from '@rabby-wallet/base-utils';
 // // send a message, strings only
 // ThreadSelf.postMessage('hello');
 
+const STREAM_CHUNK_SIZE = 10;
+
+type ReservesMsg =
+  WorkerDuplexPostDict['formatReserves' | 'formatReservesAndIncentives'];
+
+/**
+ * @description reserves are formatted independently of each other, so they're formatted by
+ * slices and the request is checked for cancellation between them. Gives up and returns
+ * false once the host cancelled it.
+ */
+function formatReservesBySlices<T extends ReservesMsg>(
+  msgData: T,
+  format: (input: T['data']) => unknown[],
+  onSlice: (result: unknown[], seq: number, isLast: boolean) => void,
+) {
+  const { reserves } = msgData.data;
+  const total = Math.max(1, Math.ceil(reserves.length / STREAM_CHUNK_SIZE));
+
+  for (let seq = 0; seq < total; seq++) {
+    if (ThreadSelf.isRequestCancelled(msgData.reqid)) return false;
+
+    const result = format({
+      ...msgData.data,
+      reserves: reserves.slice(
+        seq * STREAM_CHUNK_SIZE,
+        (seq + 1) * STREAM_CHUNK_SIZE,
+      ),
+    });
+    onSlice(result, seq, seq === total - 1);
+  }
+  return true;
+}
+
+function respondFormattedReserves<T extends ReservesMsg>(
+  msgData: T,
+  format: (input: T['data']) => unknown[],
+) {
+  // a `stream` request gets each slice as soon as it's formatted
+  if (msgData.stream) {
+    formatReservesBySlices(msgData, format, (result, seq, isLast) => {
+      ThreadSelf.postChunk(
+        msgData.reqid,
+        seq,
+        {
+          type: `response:${msgData.type}`,
+          reqid: msgData.reqid,
+          data: { result },
+        } as WorkerDuplexReceive,
+        isLast,
+      );
+    });
+    return;
+  }
+
+  const result: unknown[] = [];
+  const finished = formatReservesBySlices(msgData, format, slice => {
+    result.push(...slice);
+  });
+  if (!finished) return;
+
+  ThreadSelf.postMessage({
+    type: `response:${msgData.type}`,
+    reqid: msgData.reqid,
+    data: { result },
+  } as WorkerDuplexReceive);
+}
+
 threadSelfEE.addListener('msgToThread', message => {
   const msgData = stringUtils.safeParseJSON(message) as null | WorkerDuplexPost;
 
+  // cancelled by the host meanwhile, no one would read the result
+  if (ThreadSelf.isRequestCancelled(msgData?.reqid)) return;
+
   switch (msgData?.type) {
     case 'formatReserves': {
-      const result = formatReserves(msgData.data);
-
-      ThreadSelf.postMessage({
-        type: `response:formatReserves`,
-        reqid: msgData.reqid,
-        data: {
-          result,
-        },
-      });
+      respondFormattedReserves(msgData, formatReserves);
       break;
     }
     case 'formatUserSummary': {
+      // not sliceable, a cancelled summary runs to completion and is dropped here
       const result = formatUserSummary(msgData.data);
+      if (ThreadSelf.isRequestCancelled(msgData.reqid)) break;
 
       ThreadSelf.postMessage({
         type: `response:formatUserSummary`,
@@ -41,19 +105,12 @@ threadSelfEE.addListener('msgToThread', message => {
       break;
     }
     case 'formatReservesAndIncentives': {
-      const result = formatReservesAndIncentives(msgData.data);
-
-      ThreadSelf.postMessage({
-        type: `response:formatReservesAndIncentives`,
-        reqid: msgData.reqid,
-        data: {
-          result,
-        },
-      });
+      respondFormattedReserves(msgData, formatReservesAndIncentives);
       break;
     }
     case 'formatUserSummaryAndIncentives': {
       const result = formatUserSummaryAndIncentives(msgData.data);
+      if (ThreadSelf.isRequestCancelled(msgData.reqid)) break;
 
       ThreadSelf.postMessage({
         type: `response:formatUserSummaryAndIncentives`,